@@ -0,0 +1,8 @@
+package bench;
+
+public class Day05Benchmark extends DayBenchmark {
+    @Override
+    protected int day() {
+        return 5;
+    }
+}
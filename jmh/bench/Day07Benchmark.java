@@ -0,0 +1,18 @@
+package bench;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Setup;
+
+public class Day07Benchmark extends DayBenchmark {
+    @Override
+    protected int day() {
+        return 7;
+    }
+
+    // The beam pass both parts read is cached in the parsed Manifold, so each invocation gets a fresh one; otherwise
+    // every invocation after the first would only time the cached field.
+    @Setup(Level.Invocation)
+    public void freshManifold() throws ReflectiveOperationException {
+        reparse();
+    }
+}
@@ -0,0 +1,8 @@
+package bench;
+
+public class Day09Benchmark extends DayBenchmark {
+    @Override
+    protected int day() {
+        return 9;
+    }
+}
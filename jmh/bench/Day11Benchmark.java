@@ -0,0 +1,14 @@
+package bench;
+
+public class Day11Benchmark extends DayBenchmark {
+    @Override
+    protected int day() {
+        return 11;
+    }
+
+    // the first test input has no svr node, so part II would only time an empty walk
+    @Override
+    protected int testInput(boolean partII) {
+        return partII ? 1 : 0;
+    }
+}
@@ -0,0 +1,102 @@
+package bench;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// The solvers live in the unnamed package, which JMH benchmarks cannot import from, so they are looked up
+// reflectively once per trial. Only Method.invoke remains on the measured path.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public abstract class DayBenchmark {
+    @Param({"test", "real"})
+    public String input;
+
+    private Object solver;
+    private Method parse;
+    private Method partI;
+    private Method partII;
+    private ByteBuffer bytes;
+    private ByteBuffer bytesII;
+    private Object parsedI;
+    private Object parsedII;
+
+    protected abstract int day();
+
+    // which of the day's test inputs exercises the given part; parse is benchmarked on the part I input
+    protected int testInput(boolean partII) {
+        return 0;
+    }
+
+    // Real inputs are memory-mapped and parsed from the buffer like Runner does; test inputs go through the same
+    // parse(ByteBuffer) path on their UTF-8 bytes.
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        Class<?> solverType = Class.forName("Solver");
+        solver = Class.forName(String.format("Day%02d", day())).getDeclaredConstructor().newInstance();
+        parse = accessible(solverType.getMethod("parse", ByteBuffer.class));
+        partI = accessible(solverType.getMethod("partI", Object.class));
+        partII = accessible(solverType.getMethod("partII", Object.class));
+
+        if (input.equals("test")) {
+            List<?> testInputs = (List<?>) accessible(solverType.getMethod("testInputs")).invoke(solver);
+            bytes = utf8((String) testInputs.get(testInput(false)));
+            bytesII = utf8((String) testInputs.get(testInput(true)));
+        } else {
+            bytes = (ByteBuffer) accessible(Class.forName("AocUtils").getDeclaredMethod("map", int.class))
+                    .invoke(null, day());
+            bytesII = bytes;
+        }
+
+        reparse();
+    }
+
+    // For days whose parsed input caches work done by the parts, so that a subclass can hand every invocation a
+    // freshly parsed input from a Level.Invocation setup.
+    protected void reparse() throws ReflectiveOperationException {
+        parsedI = parse.invoke(solver, bytes.duplicate());
+        parsedII = bytesII == bytes ? parsedI : parse.invoke(solver, bytesII.duplicate());
+    }
+
+    @Benchmark
+    public Object parse() throws ReflectiveOperationException {
+        return parse.invoke(solver, bytes.duplicate());
+    }
+
+    @Benchmark
+    public Object partI() throws ReflectiveOperationException {
+        return partI.invoke(solver, parsedI);
+    }
+
+    @Benchmark
+    public Object partII() throws ReflectiveOperationException {
+        return partII.invoke(solver, parsedII);
+    }
+
+    private static ByteBuffer utf8(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Method accessible(Method method) {
+        method.setAccessible(true);
+        return method;
+    }
+}
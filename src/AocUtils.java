@@ -1,21 +1,54 @@
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.NoSuchElementException;
 import java.util.Objects;
-import java.util.PriorityQueue;
 import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.stream.IntStream;
 import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @SuppressWarnings({"unused", "SameParameterValue", "UseOfSystemOutOrSystemErr"})
 class AocUtils {
@@ -77,26 +110,384 @@ class AocUtils {
         return d;
     }
 
-    public static <T> List<List<T>> product(List<T> values, int length) {
-        List<List<T>> combinations = new ArrayList<>();
-        collectPermutations(values, length, new ArrayList<>(), combinations);
-        return combinations;
+    public static <T> Stream<List<T>> product(List<T> values, int length) {
+        return productIndexes(values.size(), length).map(tuple -> {
+            List<T> combination = new ArrayList<>(length);
+
+            for (int i : tuple) {
+                combination.add(values.get(i));
+            }
+
+            return Collections.unmodifiableList(combination);
+        });
+    }
+
+    // All tuples of length indexes in [0, base), lazily and in lexicographic order. The same int[] is refilled for
+    // every tuple of a split, so copy it if it must outlive the action.
+    static Stream<int[]> productIndexes(int base, int length) {
+        long count = 1;
+
+        for (int i = 0; i < length; i++) {
+            count = Math.multiplyExact(count, base);
+        }
+
+        return StreamSupport.stream(new ProductSpliterator(base, length, 0, count), false);
+    }
+
+    private static final class ProductSpliterator implements Spliterator<int[]> {
+        private final int base;
+        private final int length;
+        private long index;
+        private final long fence;
+        private int[] tuple;
+
+        ProductSpliterator(int base, int length, long index, long fence) {
+            this.base = base;
+            this.length = length;
+            this.index = index;
+            this.fence = fence;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super int[]> action) {
+            if (index >= fence) {
+                return false;
+            }
+
+            advance();
+            action.accept(tuple);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super int[]> action) {
+            while (index < fence) {
+                advance();
+                action.accept(tuple);
+            }
+        }
+
+        private void advance() {
+            if (tuple == null) {
+                tuple = new int[length];
+                long rest = index;
+
+                for (int i = length - 1; i >= 0; i--) {
+                    tuple[i] = (int) (rest % base);
+                    rest /= base;
+                }
+            } else {
+                for (int i = length - 1; i >= 0 && ++tuple[i] == base; i--) {
+                    tuple[i] = 0;
+                }
+            }
+
+            index++;
+        }
+
+        @Override
+        public Spliterator<int[]> trySplit() {
+            long mid = index + (fence - index) / 2;
+
+            if (mid == index) {
+                return null;
+            }
+
+            Spliterator<int[]> prefix = new ProductSpliterator(base, length, index, mid);
+            index = mid;
+            tuple = null;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return fence - index;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | SIZED | SUBSIZED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    // lines as slices of the input without their line terminator; splits at the line break nearest the middle
+    static Stream<ByteBuffer> lines(ByteBuffer input) {
+        return StreamSupport.stream(new LineSpliterator(input, input.position(), input.limit()), false);
+    }
+
+    private static final class LineSpliterator implements Spliterator<ByteBuffer> {
+        private static final int MIN_SPLIT_BYTES = 1 << 12;
+
+        private final ByteBuffer bytes;
+        private int pos;
+        private final int end;
+
+        LineSpliterator(ByteBuffer bytes, int pos, int end) {
+            this.bytes = bytes;
+            this.pos = pos;
+            this.end = end;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super ByteBuffer> action) {
+            if (pos >= end) {
+                return false;
+            }
+
+            int lineEnd = pos;
+
+            while (lineEnd < end && bytes.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+
+            int next = lineEnd + 1;
+
+            if (lineEnd > pos && bytes.get(lineEnd - 1) == '\r') {
+                lineEnd--;
+            }
+
+            action.accept(bytes.slice(pos, lineEnd - pos));
+            pos = next;
+            return true;
+        }
+
+        @Override
+        public Spliterator<ByteBuffer> trySplit() {
+            if (end - pos < MIN_SPLIT_BYTES) {
+                return null;
+            }
+
+            int mid = pos + (end - pos) / 2;
+
+            while (mid < end && bytes.get(mid - 1) != '\n') {
+                mid++;
+            }
+
+            if (mid >= end) {
+                return null;
+            }
+
+            Spliterator<ByteBuffer> prefix = new LineSpliterator(bytes, pos, mid);
+            pos = mid;
+            return prefix;
+        }
+
+        @Override
+        public long estimateSize() {
+            return end - pos;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    // Cells in one row-major byte[] surrounded by a one-cell border, so neighbour reads need no bounds checks.
+    // Cells are addressed by index; adding an offset from neighbours4/neighbours8 moves to an adjacent cell.
+    static final class Grid {
+        private final byte[] cells;
+        private final int width;
+        private final int height;
+        private final int stride;
+        private final int[] neighbours4;
+        private final int[] neighbours8;
+
+        private Grid(byte[] cells, int width, int height) {
+            this.cells = cells;
+            this.width = width;
+            this.height = height;
+            this.stride = width + 2;
+            this.neighbours4 = new int[] {-stride, -1, 1, stride};
+            this.neighbours8 = new int[] {-stride - 1, -stride, -stride + 1, -1, 1, stride - 1, stride, stride + 1};
+        }
+
+        static Grid parse(String input, char border) {
+            return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)), border);
+        }
+
+        // lines shorter than the longest one are padded with the border
+        static Grid parse(ByteBuffer input, char border) {
+            Tokenizer tokenizer = new Tokenizer(input);
+            int width = 0;
+            int height = 0;
+
+            while (tokenizer.nextLine()) {
+                width = Math.max(width, tokenizer.length());
+                height++;
+            }
+
+            byte[] cells = new byte[(width + 2) * (height + 2)];
+            Arrays.fill(cells, (byte) border);
+            Grid grid = new Grid(cells, width, height);
+            tokenizer = new Tokenizer(input);
+
+            for (int y = 0; tokenizer.nextLine(); y++) {
+                for (int x = 0; x < tokenizer.length(); x++) {
+                    cells[grid.index(x, y)] = tokenizer.byteAt(x);
+                }
+            }
+
+            return grid;
+        }
+
+        int width() {
+            return width;
+        }
+
+        int height() {
+            return height;
+        }
+
+        // number of indexes including the border
+        int size() {
+            return cells.length;
+        }
+
+        int index(int x, int y) {
+            return (y + 1) * stride + x + 1;
+        }
+
+        int x(int index) {
+            return index % stride - 1;
+        }
+
+        int y(int index) {
+            return index / stride - 1;
+        }
+
+        byte get(int index) {
+            return cells[index];
+        }
+
+        byte get(int x, int y) {
+            return cells[index(x, y)];
+        }
+
+        void set(int index, char c) {
+            cells[index] = (byte) c;
+        }
+
+        int[] neighbours4() {
+            return neighbours4;
+        }
+
+        int[] neighbours8() {
+            return neighbours8;
+        }
+
+        Line row(int y) {
+            return new Line(cells, index(0, y), 1, width);
+        }
+
+        Line column(int x) {
+            return new Line(cells, index(x, 0), stride, height);
+        }
+
+        Grid copy() {
+            return new Grid(cells.clone(), width, height);
+        }
+
+        record Line(byte[] cells, int first, int step, int length) {
+            byte get(int i) {
+                return cells[first + i * step];
+            }
+
+            int indexOf(char c) {
+                for (int i = 0; i < length; i++) {
+                    if (get(i) == c) {
+                        return i;
+                    }
+                }
+
+                return -1;
+            }
+        }
     }
 
-    private static <T> void collectPermutations(List<T> values, int length, List<T> prefix, List<List<T>> combinations) {
-        if (prefix.size() == length) {
-            combinations.add(List.copyOf(prefix));
-        } else {
-            for (T value : values) {
-                prefix.addLast(value);
-                collectPermutations(values, length, prefix, combinations);
-                prefix.removeLast();
+    static final class Tokenizer {
+        private final ByteBuffer bytes;
+        private int lineStart;
+        private int lineEnd;
+        private int pos;
+        private int next;
+
+        Tokenizer(ByteBuffer bytes) {
+            this.bytes = bytes;
+            this.next = bytes.position();
+        }
+
+        boolean nextLine() {
+            int limit = bytes.limit();
+
+            if (next >= limit) {
+                return false;
+            }
+
+            int i = next;
+
+            while (i < limit && bytes.get(i) != '\n') {
+                i++;
+            }
+
+            lineStart = next;
+            lineEnd = i > lineStart && bytes.get(i - 1) == '\r' ? i - 1 : i;
+            pos = lineStart;
+            next = i + 1;
+            return true;
+        }
+
+        int length() {
+            return lineEnd - lineStart;
+        }
+
+        byte byteAt(int index) {
+            return bytes.get(lineStart + index);
+        }
+
+        boolean hasNextLong() {
+            while (pos < lineEnd && !isNumberStart(pos)) {
+                pos++;
+            }
+
+            return pos < lineEnd;
+        }
+
+        long nextLong() {
+            if (!hasNextLong()) {
+                throw new NoSuchElementException();
+            }
+
+            boolean negative = bytes.get(pos) == '-';
+
+            if (negative) {
+                pos++;
+            }
+
+            long value = 0;
+
+            while (pos < lineEnd && isDigit(bytes.get(pos))) {
+                value = value * 10 + (bytes.get(pos++) - '0');
             }
+
+            return negative ? -value : value;
+        }
+
+        // a '-' directly after a digit is a separator ("11-22"), not a sign
+        private boolean isNumberStart(int i) {
+            byte b = bytes.get(i);
+            return isDigit(b) || b == '-' && i + 1 < lineEnd && isDigit(bytes.get(i + 1))
+                                 && (i == lineStart || !isDigit(bytes.get(i - 1)));
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
         }
     }
 
     static class Graph<T> {
         private final Map<T, Set<NodeDistance<T>>> neighbors;
+        private Compiled<T> compiled;
 
         public Graph() {
             neighbors = new HashMap<>();
@@ -105,130 +496,777 @@ class AocUtils {
         void addEdge(T source, T destination, long weight) {
             neighbors.computeIfAbsent(source, k -> new HashSet<>()).add(new NodeDistance<>(destination, weight));
             neighbors.computeIfAbsent(destination, k -> new HashSet<>());
+            compiled = null;
         }
 
+        // Long.MIN_VALUE when end is unreachable
         long longestPath(T start, T end) {
-            return longestPath(start, end, new HashSet<>());
-        }
+            Compiled<T> graph = compile();
+            int s = graph.id(start);
+            int t = graph.id(end);
 
-        private long longestPath(T pos, T end, Set<T> visited) {
-            if (pos.equals(end)) {
+            if (Objects.equals(start, end)) {
                 return 0;
+            } else if (s < 0 || t < 0) {
+                return Long.MIN_VALUE;
+            }
+
+            return new LongestPath(graph.offsets, graph.targets, graph.weights, s, t).search();
+        }
+
+        long dijkstra(T start, T end) {
+            return shortestPath(start, end).distance();
+        }
+
+        long dijkstra(T start, Predicate<T> isEnd) {
+            return shortestPath(start, isEnd).distance();
+        }
+
+        Path<T> shortestPath(T start, T end) {
+            return compile().bidirectional(start, end);
+        }
+
+        Path<T> shortestPath(T start, Predicate<T> isEnd) {
+            return compile().aStar(start, isEnd, t -> 0);
+        }
+
+        // heuristic must never overestimate the remaining distance to the closest end node
+        Path<T> shortestPath(T start, Predicate<T> isEnd, ToLongFunction<T> heuristic) {
+            return compile().aStar(start, isEnd, heuristic);
+        }
+
+        Compiled<T> compile() {
+            if (compiled == null) {
+                compiled = new Compiled<>(neighbors);
             }
 
-            visited.add(pos);
-            long max = Long.MIN_VALUE;
+            return compiled;
+        }
+
+        private record NodeDistance<T>(T node, long distance) {}
+
+        // Exhaustive simple-path search: nodes that only connect two neighbours are first folded into weighted
+        // edges between them, then the top-level branches are searched in parallel with an iterative DFS over
+        // bitmask visited sets, skipping branches whose optimistic bound cannot beat the best path found.
+        private static final class LongestPath {
+            private static final int MIN_TASKS_PER_THREAD = 8;
 
-            for (var next : neighbors.get(pos)) {
-                if (!visited.contains(next.node())) {
-                    long distance = next.distance() + longestPath(next.node(), end, visited);
+            private final int[] offsets;
+            private final int[] targets;
+            private final long[] weights;
+            private final long[] maxIncoming;
+            private final int start;
+            private final int end;
+            private final AtomicLong best = new AtomicLong(Long.MIN_VALUE);
 
-                    if (distance > max) {
-                        max = distance;
+            LongestPath(int[] offsets, int[] targets, long[] weights, int start, int end) {
+                int n = offsets.length - 1;
+                List<Map<Integer, Long>> out = new ArrayList<>();
+                List<Map<Integer, Long>> in = new ArrayList<>();
+
+                for (int u = 0; u < n; u++) {
+                    out.add(new HashMap<>());
+                    in.add(new HashMap<>());
+                }
+
+                for (int u = 0; u < n; u++) {
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        addEdge(out, in, u, targets[e], weights[e]);
+                    }
+                }
+
+                contract(out, in, start, end);
+
+                int[] ids = new int[n];
+                int size = 0;
+
+                for (int u = 0; u < n; u++) {
+                    ids[u] = u == start || u == end || !out.get(u).isEmpty() || !in.get(u).isEmpty() ? size++ : -1;
+                }
+
+                this.offsets = new int[size + 1];
+                this.targets = new int[out.stream().mapToInt(Map::size).sum()];
+                this.weights = new long[targets.length];
+                this.maxIncoming = new long[size];
+                this.start = ids[start];
+                this.end = ids[end];
+
+                for (int u = 0; u < n; u++) {
+                    if (ids[u] >= 0) {
+                        int e = this.offsets[ids[u]];
+
+                        for (var edge : out.get(u).entrySet()) {
+                            this.targets[e] = ids[edge.getKey()];
+                            this.weights[e] = edge.getValue();
+                            maxIncoming[ids[edge.getKey()]] = Math.max(maxIncoming[ids[edge.getKey()]], edge.getValue());
+                            e++;
+                        }
+
+                        this.offsets[ids[u] + 1] = e;
                     }
                 }
             }
 
-            visited.remove(pos);
-            return max;
-        }
+            private static void addEdge(List<Map<Integer, Long>> out, List<Map<Integer, Long>> in, int u, int v, long w) {
+                if (u != v) {
+                    out.get(u).merge(v, w, Math::max);
+                    in.get(v).merge(u, w, Math::max);
+                }
+            }
 
-        long dijkstra(T start, T end) {
-            return dijkstra(start, t -> Objects.equals(t, end));
+            private static void removeNode(List<Map<Integer, Long>> out, List<Map<Integer, Long>> in, int v) {
+                out.get(v).keySet().forEach(b -> in.get(b).remove(v));
+                in.get(v).keySet().forEach(a -> out.get(a).remove(v));
+                out.get(v).clear();
+                in.get(v).clear();
+            }
+
+            // A simple path entering v from a must leave it to some b != a, so when v touches at most two other
+            // nodes every a -> v -> b can be replaced by a direct edge. Nodes without way in or out are dropped.
+            private static void contract(List<Map<Integer, Long>> out, List<Map<Integer, Long>> in, int start, int end) {
+                Deque<Integer> work = new ArrayDeque<>();
+                IntStream.range(0, out.size()).forEach(work::add);
+
+                while (!work.isEmpty()) {
+                    int v = work.poll();
+
+                    if (v == start || v == end || out.get(v).isEmpty() && in.get(v).isEmpty()) {
+                        continue;
+                    }
+
+                    Set<Integer> touching = union(out.get(v).keySet(), in.get(v).keySet());
+
+                    if (touching.size() <= 2 || out.get(v).isEmpty() || in.get(v).isEmpty()) {
+                        var incoming = Map.copyOf(in.get(v));
+                        var outgoing = Map.copyOf(out.get(v));
+                        removeNode(out, in, v);
+
+                        incoming.forEach((a, wa) -> outgoing.forEach((b, wb) -> addEdge(out, in, a, b, wa + wb)));
+                        work.addAll(touching);
+                    }
+                }
+            }
+
+            long search() {
+                long[] visited = new long[(maxIncoming.length + 63) / 64];
+                visited[start >>> 6] |= 1L << start;
+                long remaining = LongStream.of(maxIncoming).map(w -> Math.max(w, 0)).sum() - Math.max(maxIncoming[start], 0);
+                List<Branch> branches = List.of(new Branch(start, visited, 0, remaining));
+                int wanted = MIN_TASKS_PER_THREAD * ForkJoinPool.getCommonPoolParallelism();
+
+                while (!branches.isEmpty() && branches.size() < wanted) {
+                    List<Branch> next = new ArrayList<>();
+                    branches.forEach(b -> expand(b, next));
+                    branches = next;
+                }
+
+                branches.parallelStream().forEach(this::search);
+                return best.get();
+            }
+
+            private void expand(Branch branch, List<Branch> next) {
+                for (int e = offsets[branch.node()]; e < offsets[branch.node() + 1]; e++) {
+                    int v = targets[e];
+
+                    if ((branch.visited()[v >>> 6] & 1L << v) == 0) {
+                        long distance = branch.distance() + weights[e];
+                        long remaining = branch.remaining() - Math.max(maxIncoming[v], 0);
+
+                        if (v == end) {
+                            best.accumulateAndGet(distance, Math::max);
+                        } else if (distance + remaining > best.get()) {
+                            long[] visited = branch.visited().clone();
+                            visited[v >>> 6] |= 1L << v;
+                            next.add(new Branch(v, visited, distance, remaining));
+                        }
+                    }
+                }
+            }
+
+            private void search(Branch branch) {
+                int n = maxIncoming.length;
+                long[] visited = branch.visited().clone();
+                int[] nodes = new int[n + 1];
+                int[] edges = new int[n + 1];
+                long[] distances = new long[n + 1];
+                long[] remainings = new long[n + 1];
+                int depth = 0;
+                nodes[0] = branch.node();
+                edges[0] = offsets[branch.node()];
+                distances[0] = branch.distance();
+                remainings[0] = branch.remaining();
+
+                while (depth >= 0) {
+                    int u = nodes[depth];
+
+                    if (edges[depth] == offsets[u + 1]) {
+                        visited[u >>> 6] &= ~(1L << u);
+                        depth--;
+                        continue;
+                    }
+
+                    int e = edges[depth]++;
+                    int v = targets[e];
+
+                    if ((visited[v >>> 6] & 1L << v) != 0) {
+                        continue;
+                    }
+
+                    long distance = distances[depth] + weights[e];
+                    long remaining = remainings[depth] - Math.max(maxIncoming[v], 0);
+
+                    if (v == end) {
+                        if (distance > best.get()) {
+                            best.accumulateAndGet(distance, Math::max);
+                        }
+                    } else if (distance + remaining > best.get()) {
+                        visited[v >>> 6] |= 1L << v;
+                        depth++;
+                        nodes[depth] = v;
+                        edges[depth] = offsets[v];
+                        distances[depth] = distance;
+                        remainings[depth] = remaining;
+                    }
+                }
+            }
+
+            private record Branch(int node, long[] visited, long distance, long remaining) {}
         }
 
-        long dijkstra(T start, Predicate<T> isEnd) {
-            var distances = new HashMap<T, Long>();
-            var queue = new PriorityQueue<NodeDistance<T>>(neighbors.size(), Comparator.comparingLong(NodeDistance::distance));
-            var visited = new HashSet<T>();
+        // distance Long.MAX_VALUE and no nodes when no end node is reachable
+        record Path<T>(long distance, List<T> nodes) {}
+
+        // nodes interned to dense ids, edges of node i at offsets[i] until offsets[i + 1] in targets/weights
+        static final class Compiled<T> {
+            private final List<T> nodes;
+            private final Map<T, Integer> ids;
+            private final int[] offsets;
+            private final int[] targets;
+            private final long[] weights;
+            private Compiled<T> reversed;
+
+            private Compiled(List<T> nodes, Map<T, Integer> ids, int[] offsets, int[] targets, long[] weights) {
+                this.nodes = nodes;
+                this.ids = ids;
+                this.offsets = offsets;
+                this.targets = targets;
+                this.weights = weights;
+            }
+
+            private Compiled(Map<T, Set<NodeDistance<T>>> neighbors) {
+                nodes = new ArrayList<>(neighbors.keySet());
+                ids = new HashMap<>();
+                offsets = new int[nodes.size() + 1];
+
+                for (int i = 0; i < nodes.size(); i++) {
+                    ids.put(nodes.get(i), i);
+                    offsets[i + 1] = offsets[i] + neighbors.get(nodes.get(i)).size();
+                }
+
+                targets = new int[offsets[nodes.size()]];
+                weights = new long[offsets[nodes.size()]];
+
+                for (int i = 0; i < nodes.size(); i++) {
+                    int e = offsets[i];
+
+                    for (var edge : neighbors.get(nodes.get(i))) {
+                        targets[e] = ids.get(edge.node());
+                        weights[e] = edge.distance();
+                        e++;
+                    }
+                }
+            }
+
+            int size() {
+                return nodes.size();
+            }
+
+            int id(T node) {
+                return ids.getOrDefault(node, -1);
+            }
+
+            T node(int id) {
+                return nodes.get(id);
+            }
+
+            long dijkstra(T start, Predicate<T> isEnd) {
+                int s = id(start);
+
+                if (s < 0) {
+                    return isEnd.test(start) ? 0 : Long.MAX_VALUE;
+                }
+
+                long[] distances = dijkstra(s);
+                long min = Long.MAX_VALUE;
+
+                for (int i = 0; i < distances.length; i++) {
+                    if (distances[i] < min && isEnd.test(nodes.get(i))) {
+                        min = distances[i];
+                    }
+                }
+
+                return min;
+            }
 
-            distances.put(start, 0L);
-            queue.add(new NodeDistance<>(start, 0));
+            long[] dijkstra(int start) {
+                long[] distances = new long[size()];
+                Arrays.fill(distances, Long.MAX_VALUE);
+                distances[start] = 0;
+                IndexedHeap queue = new IndexedHeap(distances);
+                queue.push(start);
 
-            while (!queue.isEmpty()) {
-                var u = queue.poll();
+                while (!queue.isEmpty()) {
+                    int u = queue.poll();
 
-                if (visited.add(u.node())) {
-                    for (var v : neighbors.getOrDefault(u.node(), Set.of())) {
-                        if (!visited.contains(v.node())) {
-                            var newDistance = distances.get(u.node()) + v.distance();
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        int v = targets[e];
 
-                            if (newDistance < distances.getOrDefault(v.node(), Long.MAX_VALUE)) {
-                                distances.put(v.node(), newDistance);
-                                queue.add(new NodeDistance<>(v.node, newDistance));
+                        if (!queue.isRemoved(v)) {
+                            long newDistance = distances[u] + weights[e];
+
+                            if (newDistance < distances[v]) {
+                                distances[v] = newDistance;
+                                queue.push(v);
                             }
                         }
                     }
                 }
+
+                return distances;
+            }
+
+            Path<T> aStar(T start, Predicate<T> isEnd, ToLongFunction<T> heuristic) {
+                int s = id(start);
+
+                if (s < 0) {
+                    return isEnd.test(start) ? new Path<>(0, List.of(start)) : new Path<>(Long.MAX_VALUE, List.of());
+                }
+
+                long[] distances = new long[size()];
+                long[] estimates = new long[size()];
+                int[] previous = new int[size()];
+                Arrays.fill(distances, Long.MAX_VALUE);
+                distances[s] = 0;
+                estimates[s] = heuristic.applyAsLong(start);
+                previous[s] = -1;
+                IndexedHeap queue = new IndexedHeap(estimates);
+                queue.push(s);
+
+                while (!queue.isEmpty()) {
+                    int u = queue.poll();
+
+                    if (isEnd.test(nodes.get(u))) {
+                        return new Path<>(distances[u], path(previous, u));
+                    }
+
+                    for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                        int v = targets[e];
+                        long newDistance = distances[u] + weights[e];
+
+                        // a node is reopened if an inconsistent heuristic settled it too early
+                        if (newDistance < distances[v]) {
+                            distances[v] = newDistance;
+                            estimates[v] = newDistance + heuristic.applyAsLong(nodes.get(v));
+                            previous[v] = u;
+                            queue.push(v);
+                        }
+                    }
+                }
+
+                return new Path<>(Long.MAX_VALUE, List.of());
             }
 
-            return distances.keySet()
-                            .stream()
-                            .filter(isEnd)
-                            .mapToLong(distances::get)
-                            .min()
-                            .orElse(Long.MAX_VALUE);
+            Path<T> bidirectional(T start, T end) {
+                int s = id(start);
+                int t = id(end);
+
+                if (Objects.equals(start, end)) {
+                    return new Path<>(0, List.of(start));
+                } else if (s < 0 || t < 0) {
+                    return new Path<>(Long.MAX_VALUE, List.of());
+                }
+
+                Compiled<T> backward = reversed();
+                long[] forwardDistances = new long[size()];
+                long[] backwardDistances = new long[size()];
+                int[] forwardPrevious = new int[size()];
+                int[] backwardPrevious = new int[size()];
+                Arrays.fill(forwardDistances, Long.MAX_VALUE);
+                Arrays.fill(backwardDistances, Long.MAX_VALUE);
+                forwardDistances[s] = 0;
+                backwardDistances[t] = 0;
+                forwardPrevious[s] = -1;
+                backwardPrevious[t] = -1;
+                IndexedHeap forwardQueue = new IndexedHeap(forwardDistances);
+                IndexedHeap backwardQueue = new IndexedHeap(backwardDistances);
+                forwardQueue.push(s);
+                backwardQueue.push(t);
+                long best = Long.MAX_VALUE;
+                int meet = -1;
+
+                // stop once no path through the unsettled frontiers can beat the best meeting found so far
+                while (!forwardQueue.isEmpty() && !backwardQueue.isEmpty()
+                       && forwardDistances[forwardQueue.peek()] + backwardDistances[backwardQueue.peek()] < best) {
+                    boolean forward = forwardDistances[forwardQueue.peek()] <= backwardDistances[backwardQueue.peek()];
+                    Compiled<T> graph = forward ? this : backward;
+                    IndexedHeap queue = forward ? forwardQueue : backwardQueue;
+                    long[] distances = forward ? forwardDistances : backwardDistances;
+                    long[] otherDistances = forward ? backwardDistances : forwardDistances;
+                    int[] previous = forward ? forwardPrevious : backwardPrevious;
+                    int u = queue.poll();
+
+                    for (int e = graph.offsets[u]; e < graph.offsets[u + 1]; e++) {
+                        int v = graph.targets[e];
+                        long newDistance = distances[u] + graph.weights[e];
+
+                        if (!queue.isRemoved(v) && newDistance < distances[v]) {
+                            distances[v] = newDistance;
+                            previous[v] = u;
+                            queue.push(v);
+                        }
+
+                        if (otherDistances[v] != Long.MAX_VALUE && distances[v] + otherDistances[v] < best) {
+                            best = distances[v] + otherDistances[v];
+                            meet = v;
+                        }
+                    }
+                }
+
+                if (meet < 0) {
+                    return new Path<>(Long.MAX_VALUE, List.of());
+                }
+
+                List<T> path = new ArrayList<>(path(forwardPrevious, meet));
+
+                for (int v = backwardPrevious[meet]; v >= 0; v = backwardPrevious[v]) {
+                    path.add(nodes.get(v));
+                }
+
+                return new Path<>(best, path);
+            }
+
+            private Compiled<T> reversed() {
+                if (reversed == null) {
+                    int[] reverseOffsets = new int[size() + 1];
+
+                    for (int target : targets) {
+                        reverseOffsets[target + 1]++;
+                    }
+
+                    for (int i = 0; i < size(); i++) {
+                        reverseOffsets[i + 1] += reverseOffsets[i];
+                    }
+
+                    int[] reverseTargets = new int[targets.length];
+                    long[] reverseWeights = new long[weights.length];
+                    int[] next = Arrays.copyOf(reverseOffsets, size());
+
+                    for (int u = 0; u < size(); u++) {
+                        for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                            int r = next[targets[e]]++;
+                            reverseTargets[r] = u;
+                            reverseWeights[r] = weights[e];
+                        }
+                    }
+
+                    reversed = new Compiled<>(nodes, ids, reverseOffsets, reverseTargets, reverseWeights);
+                }
+
+                return reversed;
+            }
+
+            private List<T> path(int[] previous, int end) {
+                List<T> path = new ArrayList<>();
+
+                for (int v = end; v >= 0; v = previous[v]) {
+                    path.add(nodes.get(v));
+                }
+
+                return path.reversed();
+            }
         }
+    }
 
-        private record NodeDistance<T>(T node, long distance) {}
+    // binary min-heap of ids ordered by keys[id], supporting decrease-key through push
+    private static final class IndexedHeap {
+        private static final int ABSENT = -1;
+        private static final int REMOVED = -2;
+
+        private final long[] keys;
+        private final int[] heap;
+        private final int[] positions;
+        private int size;
+
+        IndexedHeap(long[] keys) {
+            this.keys = keys;
+            this.heap = new int[keys.length];
+            this.positions = new int[keys.length];
+            Arrays.fill(positions, ABSENT);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        boolean isRemoved(int id) {
+            return positions[id] == REMOVED;
+        }
+
+        // inserts id, or restores heap order after its key was lowered
+        void push(int id) {
+            if (positions[id] < 0) {
+                heap[size] = id;
+                positions[id] = size;
+                size++;
+            }
+
+            siftUp(positions[id]);
+        }
+
+        int peek() {
+            return heap[0];
+        }
+
+        int poll() {
+            int top = heap[0];
+            positions[top] = REMOVED;
+            size--;
+
+            if (size > 0) {
+                heap[0] = heap[size];
+                positions[heap[0]] = 0;
+                siftDown(0);
+            }
+
+            return top;
+        }
+
+        private void siftUp(int i) {
+            int id = heap[i];
+
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+
+                if (keys[heap[parent]] <= keys[id]) {
+                    break;
+                }
+
+                heap[i] = heap[parent];
+                positions[heap[i]] = i;
+                i = parent;
+            }
+
+            heap[i] = id;
+            positions[id] = i;
+        }
+
+        private void siftDown(int i) {
+            int id = heap[i];
+
+            while (true) {
+                int child = 2 * i + 1;
+
+                if (child >= size) {
+                    break;
+                }
+
+                if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                    child++;
+                }
+
+                if (keys[id] <= keys[heap[child]]) {
+                    break;
+                }
+
+                heap[i] = heap[child];
+                positions[heap[i]] = i;
+                i = child;
+            }
+
+            heap[i] = id;
+            positions[id] = i;
+        }
     }
 
     static String download(int day) {
-        if (day < 1 || day > 25) {
-            throw new IllegalArgumentException("Day must be 1-25");
+        return Downloader.DEFAULT.content("day/" + day + "/input", inputPath(day), false);
+    }
+
+    static Path file(int day) {
+        return Downloader.DEFAULT.file("day/" + day + "/input", inputPath(day), false);
+    }
+
+    static ByteBuffer map(int day) {
+        return map(file(day));
+    }
+
+    static ByteBuffer map(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
+    }
 
-        try (HttpClient client = HttpClient.newHttpClient()) {
-            Path path = Path.of("input/" + day + ".txt");
+    interface IOConsumer<T> {
+        void accept(T t) throws IOException;
+    }
+
+    // Writes to a temporary file next to path and moves it into place, so concurrent readers only ever see a complete
+    // file and a crash mid-write leaves the previous one intact.
+    static void writeAtomically(Path path, IOConsumer<OutputStream> writer) throws IOException {
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temp = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
 
-            if (!Files.exists(path)) {
-                String cookies = Files.readString(Path.of("cookies.txt")).replace("\r", "").replace("\n", "");
-                String content = client.send(HttpRequest.newBuilder()
-                                                        .uri(URI.create("https://adventofcode.com/2025/day/" + day + "/input"))
-                                                        .setHeader("Cookie", cookies)
-                                                        .build(), HttpResponse.BodyHandlers.ofString())
-                                       .body();
-                Files.writeString(path, content);
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                writer.accept(out);
             }
 
-            return Files.readString(path);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
         }
     }
 
-    static String downloadLeaderboard(boolean force) {
-        long id = 2897173;
+    // A single mapping is limited to 2 GiB, so larger files are mapped as consecutive regions of at most that size,
+    // each cut after its last newline so that no line is split between two regions.
+    static List<ByteBuffer> mapLines(Path path) {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            List<ByteBuffer> regions = new ArrayList<>();
+            long size = channel.size();
+            long from = 0;
 
-        try (HttpClient client = HttpClient.newHttpClient()) {
-            Path path = Path.of("leaderboard/" + 2897173 + ".json");
+            do {
+                ByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, from, Math.min(size - from,
+                                                                                              Integer.MAX_VALUE));
+                int end = region.limit();
 
-            if (force || !Files.exists(path)) {
-                String cookies = Files.readString(Path.of("cookies.txt")).replace("\r", "").replace("\n", "");
-                String content = client.send(HttpRequest.newBuilder()
-                                                        .uri(URI.create(
-                                                                "https://adventofcode.com/2025/leaderboard/private/view/" + id
-                                                                + ".json"))
-                                                        .setHeader("Cookie", cookies)
-                                                        .build(), HttpResponse.BodyHandlers.ofString())
-                                       .body();
+                if (from + end < size) {
+                    while (end > 0 && region.get(end - 1) != '\n') {
+                        end--;
+                    }
 
-                Files.createDirectories(path.getParent());
-                Files.writeString(path, content);
-            }
+                    if (end == 0) {
+                        throw new IllegalArgumentException("Line longer than 2 GiB in " + path);
+                    }
+                }
 
-            return Files.readString(path);
-        } catch (Exception e) {
-            throw new RuntimeException(e);
+                regions.add(region.slice(0, end));
+                from += end;
+            } while (from < size);
+
+            return regions;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
         }
     }
 
-    static void waitForStartTime(int day) {
+    private static Path inputPath(int day) {
         if (day < 1 || day > 25) {
             throw new IllegalArgumentException("Day must be 1-25");
         }
 
-        Instant start = Instant.parse("2025-12-XXT05:00:01Z".replace("XX", String.format("%02d", day)));
+        return Path.of("input/" + day + ".txt");
+    }
+
+    static String downloadLeaderboard(boolean force) {
+        long id = 2897173;
+        Path path = Path.of("leaderboard/" + id + ".json");
+        return Downloader.DEFAULT.content("leaderboard/private/view/" + id + ".json", path, force);
+    }
+
+    // Fetches files relative to a base URI through one shared client. Concurrent requests for the same path share
+    // a single fetch, file contents are kept in memory, and files are written to a temporary file that is then
+    // renamed into place, so readers never see a partial file.
+    static final class Downloader {
+        static final Downloader DEFAULT = new Downloader(HttpClient.newHttpClient(),
+                                                         URI.create("https://adventofcode.com/2025/"),
+                                                         Downloader::readCookies);
+
+        private final HttpClient client;
+        private final URI base;
+        private final Supplier<String> cookieSupplier;
+        private final Map<Path, CompletableFuture<Path>> files = new ConcurrentHashMap<>();
+        private final Map<Path, CompletableFuture<String>> contents = new ConcurrentHashMap<>();
+        private volatile String cookies;
+
+        Downloader(HttpClient client, URI base, Supplier<String> cookies) {
+            this.client = client;
+            this.base = base;
+            this.cookieSupplier = cookies;
+        }
+
+        // fetches the file unless already on disk (or force is set) and returns its path
+        Path file(String resource, Path path, boolean force) {
+            return singleFlight(files, path, force, () -> {
+                if (force || !Files.exists(path)) {
+                    fetch(resource, path);
+                }
+
+                return path;
+            });
+        }
+
+        String content(String resource, Path path, boolean force) {
+            return singleFlight(contents, path, force, () -> Files.readString(file(resource, path, force)));
+        }
+
+        private void fetch(String resource, Path path) throws IOException, InterruptedException {
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder()
+                                                                    .uri(base.resolve(resource))
+                                                                    .setHeader("Cookie", cookies())
+                                                                    .build(), HttpResponse.BodyHandlers.ofString());
+
+            if (response.statusCode() != 200) {
+                throw new IOException("HTTP " + response.statusCode() + " for " + response.uri());
+            }
+
+            writeAtomically(path, out -> out.write(response.body().getBytes(StandardCharsets.UTF_8)));
+        }
+
+        private String cookies() {
+            if (cookies == null) {
+                cookies = cookieSupplier.get();
+            }
+
+            return cookies;
+        }
+
+        private static String readCookies() {
+            try {
+                return Files.readString(Path.of("cookies.txt")).replace("\r", "").replace("\n", "");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // a forced load replaces a finished flight but joins one still in progress; failed flights are forgotten
+        private static <V> V singleFlight(Map<Path, CompletableFuture<V>> flights, Path key, boolean force,
+                                          Callable<V> load) {
+            CompletableFuture<V> flight = new CompletableFuture<>();
+            CompletableFuture<V> current = flights.compute(key, (k, f) -> f == null || force && f.isDone() ? flight : f);
+
+            if (current == flight) {
+                try {
+                    flight.complete(load.call());
+                } catch (Exception e) {
+                    flights.remove(key, flight);
+                    flight.completeExceptionally(e);
+                }
+            }
+
+            try {
+                return current.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException r ? r : new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    static void waitForStartTime(int day) {
+        Instant start = releaseTime(day).plusSeconds(1);
 
         while (Instant.now().isBefore(start)) {
             System.out.print(".");
@@ -243,4 +1281,115 @@ class AocUtils {
 
         System.out.println();
     }
+
+    // Runs the solver on its test inputs on a daemon thread so the JIT has compiled it by the time the puzzle unlocks,
+    // while the real input is fetched on a scheduler at the release instant. After the first round no round is
+    // started that the previous one says would not finish before the release, and a round still in flight when the
+    // input arrives is waited for so it doesn't compete with the solve. Past the release there is nothing to wait for
+    // and no warm-up at all.
+    static String awaitRelease(int day, Solver<?> solver) {
+        Instant release = releaseTime(day);
+
+        if (!release.isAfter(Instant.now())) {
+            return download(day);
+        }
+
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+        try {
+            long delay = Duration.between(Instant.now(), release).toNanos();
+            ScheduledFuture<String> input = scheduler.schedule(() -> fetchReleased(day), delay, TimeUnit.NANOSECONDS);
+            Thread warmUp = Thread.ofPlatform().daemon().name("warm-up").start(() -> warmUp(solver, release));
+            String res = null;
+
+            while (res == null) {
+                try {
+                    res = input.get(5, TimeUnit.SECONDS);
+                } catch (TimeoutException e) {
+                    System.out.print(".");
+                }
+            }
+
+            warmUp.join();
+            System.out.println();
+            return res;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException(e);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    // Output printed on the warm-up thread is discarded; every other thread still writes to the original System.out,
+    // which is put back once the last round is done.
+    private static void warmUp(Solver<?> solver, Instant release) {
+        PrintStream out = System.out;
+        Thread warmUp = Thread.currentThread();
+        PrintStream filtered = new PrintStream(new OutputStream() {
+            @Override
+            public void write(int b) {
+                if (Thread.currentThread() != warmUp) {
+                    out.write(b);
+                }
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) {
+                if (Thread.currentThread() != warmUp) {
+                    out.write(b, off, len);
+                }
+            }
+
+            @Override
+            public void flush() {
+                out.flush();
+            }
+        }, true);
+        System.setOut(filtered);
+
+        try {
+            Duration round = Duration.ZERO;
+
+            while (Instant.now().plus(round).isBefore(release)) {
+                Instant roundStart = Instant.now();
+                warmUpRound(solver);
+                round = Duration.between(roundStart, Instant.now());
+            }
+        } finally {
+            if (System.out == filtered) {
+                System.setOut(out);
+            }
+        }
+    }
+
+    private static <T> void warmUpRound(Solver<T> solver) {
+        for (String input : solver.testInputs()) {
+            T parsed = solver.parse(input);
+            solver.partI(parsed);
+            solver.partII(parsed);
+        }
+    }
+
+    // the endpoint answers with an error until the puzzle has unlocked, so retry briefly around the release
+    private static String fetchReleased(int day) throws InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return download(day);
+            } catch (RuntimeException e) {
+                if (attempt == 20) {
+                    throw e;
+                }
+
+                Thread.sleep(250);
+            }
+        }
+    }
+
+    private static Instant releaseTime(int day) {
+        if (day < 1 || day > 25) {
+            throw new IllegalArgumentException("Day must be 1-25");
+        }
+
+        return Instant.parse("2025-12-XXT05:00:00Z".replace("XX", String.format("%02d", day)));
+    }
 }
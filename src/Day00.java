@@ -1,27 +1,34 @@
 import java.util.List;
 
-public class Day00 {
+public class Day00 implements Solver<List<String>> {
     private static final String TEST_INPUT = """
             """;
 
     public static void main(String... args) {
-        AocUtils.waitForStartTime(0);
-        String realInput = AocUtils.download(0);
+        Day00 solver = new Day00();
+        String realInput = AocUtils.awaitRelease(0, solver);
+        solver.run(TEST_INPUT, realInput);
+    }
+
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
 
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
-        }
+    @Override
+    public List<String> parse(String input) {
+        return input.lines().toList();
     }
 
-    private static void partI(String input) {
+    @Override
+    public Object partI(List<String> lines) {
         long res = 0;
-        System.out.println("Part I: " + res);
+        return res;
     }
 
-    private static void partII(String input) {
+    @Override
+    public Object partII(List<String> lines) {
         // TODO
+        return null;
     }
 }
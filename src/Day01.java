@@ -1,6 +1,14 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToLongBiFunction;
+import java.util.stream.IntStream;
 
-public class Day01 {
+public class Day01 implements Solver<List<ByteBuffer>> {
     private static final String TEST_INPUT = """
             L68
             L30
@@ -13,70 +21,192 @@ public class Day01 {
             R14
             L82""";
 
+    private static final int MIN_CHUNK_BYTES = 1 << 16;
+
+    private final boolean parallel;
+
+    public Day01() {
+        this(false);
+    }
+
+    Day01(boolean parallel) {
+        this.parallel = parallel;
+    }
+
     public static void main(String... args) {
-        AocUtils.waitForStartTime(1);
-        String realInput = AocUtils.download(1);
-
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
-        }
+        Day01 solver = new Day01(args.length > 0 && args[0].equals("parallel"));
+        String realInput = AocUtils.awaitRelease(1, solver);
+        solver.run(TEST_INPUT, realInput);
     }
 
-    private static void partI(String input) {
-        int zeroes = 0;
-        int val = 50;
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
 
-        for (String line : input.lines().toList()) {
-            int distance = Integer.parseInt(line.substring(1)) % 100;
+    @Override
+    public List<ByteBuffer> parse(String input) {
+        return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
 
-            if (line.startsWith("R")) {
-                val = (val + distance) % 100;
-            } else {
-                val = (val + 100 - distance) % 100;
-            }
+    // rotations are streamed straight from the bytes by each part, so nothing is kept per line
+    @Override
+    public List<ByteBuffer> parse(ByteBuffer input) {
+        return List.of(input);
+    }
+
+    // logs past 2 GiB don't fit one mapping and come as several line-aligned regions
+    @Override
+    public List<ByteBuffer> parse(Path input) {
+        return AocUtils.mapLines(input);
+    }
 
-            if (val == 0) {
-                zeroes++;
+    @Override
+    public Object partI(List<ByteBuffer> input) {
+        if (parallel) {
+            return scan(input, Chunk::landings);
+        }
+
+        long zeroes = 0;
+        long val = 50;
+
+        for (ByteBuffer region : input) {
+            AocUtils.Tokenizer tokenizer = new AocUtils.Tokenizer(region);
+
+            while (tokenizer.nextLine()) {
+                val = Math.floorMod(val + rotation(tokenizer), 100);
+
+                if (val == 0) {
+                    zeroes++;
+                }
             }
         }
 
-        var res = zeroes;
-        System.out.println("Part I: " + res);
+        return zeroes;
     }
 
-    private static void partII(String input) {
-        int zeroes = 0;
-        int val = 50;
+    // clicks landing on 0 are the multiples of 100 passed on the unwrapped dial: (val, val + d] turning right and
+    // [val - d, val) turning left
+    @Override
+    public Object partII(List<ByteBuffer> input) {
+        if (parallel) {
+            return scan(input, Chunk::passes);
+        }
 
-        for (String line : input.lines().toList()) {
-            int distance = Integer.parseInt(line.substring(1));
-            zeroes += distance / 100;
-            distance = distance % 100;
+        long zeroes = 0;
+        long val = 50;
 
-            if (line.startsWith("R")) {
-                for (int i = 0; i < distance; i++) {
-                    val = (val + 1) % 100;
+        for (ByteBuffer region : input) {
+            AocUtils.Tokenizer tokenizer = new AocUtils.Tokenizer(region);
 
-                    if (val == 0) {
-                        zeroes++;
-                    }
-                }
-            } else {
-                for (int i = 0; i < distance; i++) {
-                    val = (val + 99) % 100;
+            while (tokenizer.nextLine()) {
+                long rotation = rotation(tokenizer);
 
-                    if (val == 0) {
-                        zeroes++;
-                    }
+                if (rotation > 0) {
+                    zeroes += Math.floorDiv(val + rotation, 100) - Math.floorDiv(val, 100);
+                } else {
+                    zeroes += Math.floorDiv(val - 1, 100) - Math.floorDiv(val + rotation - 1, 100);
                 }
+
+                val = Math.floorMod(val + rotation, 100);
+            }
+        }
+
+        return zeroes;
+    }
+
+    // R positive, L negative
+    private static long rotation(AocUtils.Tokenizer tokenizer) {
+        long distance = tokenizer.nextLong();
+        return tokenizer.byteAt(0) == 'R' ? distance : -distance;
+    }
+
+    // Chunks are summarised in parallel independently of the dial position they start at, a parallel prefix scan
+    // over their net offsets then gives each chunk's start, from which its zero count follows.
+    private static long scan(List<ByteBuffer> input, ToLongBiFunction<Chunk, Integer> zeroes) {
+        List<Chunk> chunks = input.stream()
+                                  .flatMap(region -> split(region).stream())
+                                  .toList()
+                                  .parallelStream()
+                                  .map(Day01::summarize)
+                                  .toList();
+        long[] starts = new long[chunks.size()];
+        starts[0] = 50;
+
+        for (int i = 1; i < starts.length; i++) {
+            starts[i] = chunks.get(i - 1).offset();
+        }
+
+        Arrays.parallelPrefix(starts, (a, b) -> (a + b) % 100);
+        return IntStream.range(0, chunks.size())
+                        .parallel()
+                        .mapToLong(i -> zeroes.applyAsLong(chunks.get(i), (int) starts[i]))
+                        .sum();
+    }
+
+    private static List<ByteBuffer> split(ByteBuffer input) {
+        int size = input.remaining();
+        int count = Math.clamp(size / MIN_CHUNK_BYTES, 1, 4 * ForkJoinPool.getCommonPoolParallelism());
+        List<ByteBuffer> chunks = new ArrayList<>();
+        int from = input.position();
+
+        for (int i = 1; i <= count; i++) {
+            int to = i == count ? input.limit() : Math.max(from, input.position() + (int) ((long) size * i / count));
+
+            while (to < input.limit() && input.get(to - 1) != '\n') {
+                to++;
             }
 
+            if (to > from) {
+                chunks.add(input.slice(from, to - from));
+                from = to;
+            }
+        }
+
+        if (chunks.isEmpty()) {
+            chunks.add(input.slice(from, 0));
         }
 
-        var res = zeroes;
-        System.out.println("Part II: " + res);
+        return chunks;
+    }
+
+    // Positions are tracked relative to the chunk start. For a start s in [0, 100),
+    // floorDiv(s + x, 100) == floorDiv(x, 100) + (floorMod(x, 100) >= 100 - s ? 1 : 0), so the crossings of every
+    // rotation split into a part independent of s and +-1 entries by residue that only count for large enough s.
+    private static Chunk summarize(ByteBuffer chunk) {
+        AocUtils.Tokenizer tokenizer = new AocUtils.Tokenizer(chunk);
+        long[] landed = new long[100];
+        long[] passed = new long[100];
+        long fixed = 0;
+        long pos = 0;
+
+        while (tokenizer.nextLine()) {
+            long next = pos + rotation(tokenizer);
+            long from = next > pos ? pos : next - 1;
+            long to = next > pos ? next : pos - 1;
+            fixed += Math.floorDiv(to, 100) - Math.floorDiv(from, 100);
+            passed[Math.floorMod(to, 100)]++;
+            passed[Math.floorMod(from, 100)]--;
+            pos = next;
+            landed[Math.floorMod(pos, 100)]++;
+        }
+
+        return new Chunk(Math.floorMod(pos, 100), landed, fixed, passed);
+    }
+
+    private record Chunk(long offset, long[] landed, long fixed, long[] passed) {
+        long landings(int start) {
+            return landed[(100 - start) % 100];
+        }
+
+        long passes(int start) {
+            long res = fixed;
+
+            for (int r = 100 - start; r < 100; r++) {
+                res += passed[r];
+            }
+
+            return res;
+        }
     }
 }
@@ -1,66 +1,189 @@
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
 import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
-public class Day02 {
+public class Day02 implements Solver<long[]> {
     private static final String TEST_INPUT = """
             11-22,95-115,998-1012,1188511880-1188511890,222220-222224,1698522-1698528,446443-446449,38593856-38593862,565653-565659,824824821-824824827,2121212118-2121212124
             """;
 
+    private static final int MAX_DIGITS = 19;
+    private static final long[] POWERS_OF_TEN = LongStream.iterate(1, p -> p * 10).limit(MAX_DIGITS).toArray();
+
+    private final boolean batch;
+
+    public Day02() {
+        this(false);
+    }
+
+    // in batch mode overlapping intervals are merged first, so an ID covered by several intervals counts once
+    Day02(boolean batch) {
+        this.batch = batch;
+    }
+
     public static void main(String... args) {
-        AocUtils.waitForStartTime(2);
-        String realInput = AocUtils.download(2);
-
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
+        Day02 solver = new Day02(args.length > 0 && args[0].equals("batch"));
+        String realInput = AocUtils.awaitRelease(2, solver);
+        solver.run(TEST_INPUT, realInput);
+    }
+
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
+
+    @Override
+    public long[] parse(String input) {
+        return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    // intervals as consecutive low, high pairs
+    @Override
+    public long[] parse(ByteBuffer input) {
+        AocUtils.Tokenizer tokenizer = new AocUtils.Tokenizer(input);
+        LongStream.Builder intervals = LongStream.builder();
+
+        while (tokenizer.nextLine()) {
+            while (tokenizer.hasNextLong()) {
+                intervals.add(tokenizer.nextLong());
+            }
         }
+
+        return intervals.build().toArray();
     }
 
-    private static void partI(String input) {
-        var res = 0L;
+    @Override
+    public Object partI(long[] intervals) {
+        if (batch) {
+            return batchSum(intervals, (low, high, length) -> length % 2 == 0
+                                                              ? periodicSum(low, high, length, length / 2)
+                                                              : BigInteger.ZERO);
+        }
+
+        BigInteger res = BigInteger.ZERO;
+
+        for (int ix = 0; ix < intervals.length; ix += 2) {
+            for (int length = 2; length <= MAX_DIGITS; length += 2) {
+                res = res.add(periodicSum(intervals[ix], intervals[ix + 1], length, length / 2));
+            }
+        }
+
+        return res;
+    }
 
-        for (String interval : input.replace("\n", "").split(",")) {
-            long low = Long.parseLong(interval.substring(0, interval.indexOf("-")));
-            long high = Long.parseLong(interval.substring(interval.indexOf("-") + 1));
+    @Override
+    public Object partII(long[] intervals) {
+        if (batch) {
+            return batchSum(intervals, Day02::repeatedSum);
+        }
 
-            for (long nbr = low; nbr <= high; nbr++) {
-                String figures = String.valueOf(nbr);
-                int length = figures.length();
+        BigInteger res = BigInteger.ZERO;
 
-                if (length % 2 == 0 && figures.substring(0, length / 2).equals(figures.substring(length / 2))) {
-                    res += nbr;
-                }
+        for (int ix = 0; ix < intervals.length; ix += 2) {
+            for (int length = 2; length <= MAX_DIGITS; length++) {
+                res = res.add(repeatedSum(intervals[ix], intervals[ix + 1], length));
             }
         }
 
-        System.out.println("Part I: " + res);
+        return res;
     }
 
-    private static void partII(String input) {
-        var res = 0L;
+    // Merges overlapping and adjacent intervals, splits them where the digit count changes and sums the units on the
+    // common ForkJoinPool.
+    private static BigInteger batchSum(long[] intervals, LengthSum sum) {
+        long[][] sorted = IntStream.range(0, intervals.length / 2)
+                                   .mapToObj(i -> new long[] {intervals[2 * i], intervals[2 * i + 1]})
+                                   .sorted(Comparator.comparingLong(i -> i[0]))
+                                   .toArray(long[][]::new);
+        LongStream.Builder units = LongStream.builder();
+        int i = 0;
 
-        for (String interval : input.replace("\n", "").split(",")) {
-            long low = Long.parseLong(interval.substring(0, interval.indexOf("-")));
-            long high = Long.parseLong(interval.substring(interval.indexOf("-") + 1));
+        while (i < sorted.length) {
+            long low = sorted[i][0];
+            long high = sorted[i][1];
 
-            for (long nbr = low; nbr <= high; nbr++) {
-                String figures = String.valueOf(nbr);
-                int length = figures.length();
+            for (i++; i < sorted.length && sorted[i][0] <= high + 1; i++) {
+                high = Math.max(high, sorted[i][1]);
+            }
+
+            for (int length = digits(low); length < digits(high); length++) {
+                units.add(low).add(POWERS_OF_TEN[length] - 1).add(length);
+                low = POWERS_OF_TEN[length];
+            }
+
+            units.add(low).add(high).add(digits(high));
+        }
+
+        long[] u = units.build().toArray();
+        return IntStream.range(0, u.length / 3)
+                        .parallel()
+                        .mapToObj(j -> sum.of(u[3 * j], u[3 * j + 1], (int) u[3 * j + 2]))
+                        .reduce(BigInteger.ZERO, BigInteger::add);
+    }
+
+    private static int digits(long nbr) {
+        int length = 1;
+
+        while (length < MAX_DIGITS && nbr >= POWERS_OF_TEN[length]) {
+            length++;
+        }
+
+        return length;
+    }
 
-                for (int i = 2; i <= length; i++) {
-                    if (length % i == 0) {
-                        String repeated = figures.substring(0, length / i).repeat(i);
+    private interface LengthSum {
+        BigInteger of(long low, long high, int length);
+    }
+
+    // Sum of the length-digit numbers in [low, high] made of a block repeated at least twice. A number repeating a
+    // block of p digits also repeats its shortest block d, d dividing p, so sums per block length are corrected to
+    // sums per shortest block length (inclusion-exclusion over the divisors) before adding them up.
+    private static BigInteger repeatedSum(long low, long high, int length) {
+        BigInteger[] shortest = new BigInteger[length];
+        BigInteger res = BigInteger.ZERO;
+
+        for (int period = 1; period < length; period++) {
+            if (length % period == 0) {
+                shortest[period] = periodicSum(low, high, length, period);
 
-                        if (repeated.equals(figures)) {
-                            res += nbr;
-                            break;
-                        }
+                for (int d = 1; d < period; d++) {
+                    if (period % d == 0) {
+                        shortest[period] = shortest[period].subtract(shortest[d]);
                     }
                 }
+
+                res = res.add(shortest[period]);
             }
         }
 
-        System.out.println("Part II: " + res);
+        return res;
+    }
+
+    // Sum of the length-digit numbers in [low, high] that repeat a period-digit block, i.e. block * 1..0..01..0..01.
+    // Blocks are contiguous, so the sum is an arithmetic series. Blocks have at most 9 digits, so their sum fits a long,
+    // but times the multiplier it can exceed one once ranges span around 10^15 values.
+    private static BigInteger periodicSum(long low, long high, int length, int period) {
+        long multiplier = 0;
+
+        for (int i = 0; i < length; i += period) {
+            multiplier = multiplier * POWERS_OF_TEN[period] + 1;
+        }
+
+        long from = Math.max(low, POWERS_OF_TEN[length - 1]);
+        long to = length == MAX_DIGITS ? high : Math.min(high, POWERS_OF_TEN[length] - 1);
+        long minBlock = Math.max(POWERS_OF_TEN[period - 1], Math.ceilDiv(from, multiplier));
+        long maxBlock = Math.min(POWERS_OF_TEN[period] - 1, Math.floorDiv(to, multiplier));
+
+        if (from > to || minBlock > maxBlock) {
+            return BigInteger.ZERO;
+        }
+
+        long count = maxBlock - minBlock + 1;
+        long blockSum = count % 2 == 0 ? count / 2 * (minBlock + maxBlock) : (minBlock + maxBlock) / 2 * count;
+        return BigInteger.valueOf(blockSum).multiply(BigInteger.valueOf(multiplier));
     }
 }
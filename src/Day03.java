@@ -1,6 +1,8 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
-public class Day03 {
+public class Day03 implements Solver<ByteBuffer> {
     private static final String TEST_INPUT = """
             987654321111111
             811111111111119
@@ -8,67 +10,93 @@ public class Day03 {
             818181911112111
             """;
 
+    private static final ThreadLocal<byte[]> STACK = ThreadLocal.withInitial(() -> new byte[16]);
+
     public static void main(String... args) {
-        AocUtils.waitForStartTime(3);
-        String realInput = AocUtils.download(3);
-
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
-        }
+        Day03 solver = new Day03();
+        String realInput = AocUtils.awaitRelease(3, solver);
+        solver.run(TEST_INPUT, realInput);
     }
 
-    private static void partI(String input) {
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
+
+    @Override
+    public ByteBuffer parse(String input) {
+        return ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public ByteBuffer parse(ByteBuffer input) {
+        return input;
+    }
+
+    @Override
+    public Object partI(ByteBuffer banks) {
+        return AocUtils.lines(banks).parallel().mapToLong(bank -> joltage(bank, 2)).sum();
+    }
+
+    @Override
+    public Object partII(ByteBuffer banks) {
+        return AocUtils.lines(banks).parallel().mapToLong(bank -> joltage(bank, 12)).sum();
+    }
+
+    // exact for up to 18 digits
+    static long joltage(ByteBuffer bank, int digits) {
+        byte[] stack = select(bank, digits);
         long res = 0;
 
-        for (String bank : input.lines().toList()) {
-            res += joltage(bank, 2);
+        for (int i = 0; i < digits; i++) {
+            res = res * 10 + stack[i] - '0';
         }
 
-        System.out.println("Part I: " + res);
+        return res;
     }
 
-    private static void partII(String input) {
+    // the joltage modulo modulus, for any number of digits; modulus must be at most Long.MAX_VALUE / 10
+    static long joltage(ByteBuffer bank, int digits, long modulus) {
+        byte[] stack = select(bank, digits);
         long res = 0;
 
-        for (String bank : input.lines().toList()) {
-            res += joltage(bank, 12);
+        for (int i = 0; i < digits; i++) {
+            res = (res * 10 + stack[i] - '0') % modulus;
         }
 
-        System.out.println("Part II: " + res);
+        return res;
     }
 
-    private static long joltage(String bank, int digits) {
-        StringBuilder sb = new StringBuilder();
-        int start = 0;
+    // Largest subsequence of the given length in one pass: a digit pops smaller digits before it as long as enough
+    // digits remain to fill the stack. The returned per-thread buffer holds the digits in its first positions.
+    private static byte[] select(ByteBuffer bank, int digits) {
+        byte[] stack = STACK.get();
 
-        for (int digit = 0; digit < digits; digit++) {
-            String range = bank.substring(start, bank.length() - digits + 1 + digit);
-            int ix = maxIndex(range);
-            sb.append(range.charAt(ix));
-            start += ix + 1;
+        if (stack.length < digits) {
+            stack = new byte[digits];
+            STACK.set(stack);
         }
 
-        return Long.parseLong(sb.toString());
-    }
+        int n = bank.limit();
 
-    private static int maxIndex(String s) {
-        int maxIndex = 0;
-        char maxChar = 0;
+        if (n < digits) {
+            throw new IllegalArgumentException("Bank of " + n + " digits can't supply " + digits);
+        }
+
+        int size = 0;
 
-        for (int i = 0; i < s.length(); i++) {
-            if (s.charAt(i) > maxChar) {
-                maxIndex = i;
-                maxChar = s.charAt(i);
+        for (int i = 0; i < n; i++) {
+            byte digit = bank.get(i);
+
+            while (size > 0 && stack[size - 1] < digit && size - 1 + n - i >= digits) {
+                size--;
+            }
 
-                if (maxChar == '9') {
-                    break;
-                }
+            if (size < digits) {
+                stack[size++] = digit;
             }
         }
 
-        return maxIndex;
+        return stack;
     }
 }
@@ -1,6 +1,6 @@
 import java.util.List;
 
-public class Day04 {
+public class Day04 implements Solver<AocUtils.Grid> {
     private static final String TEST_INPUT = """
             ..@@.@@@@.
             @@@.@.@.@@
@@ -14,73 +14,114 @@ public class Day04 {
             @.@.@@@.@.""";
 
     public static void main(String... args) {
-        AocUtils.waitForStartTime(4);
-        String realInput = AocUtils.download(4);
-
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
-        }
+        Day04 solver = new Day04();
+        String realInput = AocUtils.awaitRelease(4, solver);
+        solver.run(TEST_INPUT, realInput);
     }
 
-    private static void partI(String input) {
-        long res = 0;
-        char[][] grid = AocUtils.grid(input);
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
 
-        for (int y = 0; y < grid.length; y++) {
-            for (int x = 0; x < grid[y].length; x++) {
-                if (check(x, y, grid)) {
-                    res++;
+    @Override
+    public AocUtils.Grid parse(String input) {
+        return AocUtils.Grid.parse(input, '.');
+    }
+
+    // Occupancy as rows of 64-cell words; the eight neighbour masks of a word are shifted copies of the rows above,
+    // at and below, added up with bit-sliced counters so 64 cells are counted at once.
+    @Override
+    public Object partI(AocUtils.Grid grid) {
+        int words = (grid.width() + 63) / 64;
+        long[] rows = new long[(grid.height() + 2) * words];
+
+        for (int y = 0; y < grid.height(); y++) {
+            for (int x = 0; x < grid.width(); x++) {
+                if (grid.get(x, y) != '.') {
+                    rows[(y + 1) * words + x / 64] |= 1L << x;
                 }
             }
         }
 
-        System.out.println("Part I: " + res);
+        long res = 0;
+
+        for (int y = 1; y <= grid.height(); y++) {
+            for (int w = 0; w < words; w++) {
+                int up = (y - 1) * words + w;
+                int at = y * words + w;
+                int down = (y + 1) * words + w;
+
+                // full adders over the eight neighbours: ones is the low count bit, the carries each weigh two
+                long a = left(rows, up, w), b = rows[up], c = right(rows, up, w, words);
+                long d = left(rows, at, w), e = right(rows, at, w, words), f = left(rows, down, w);
+                long g = rows[down], h = right(rows, down, w, words);
+                long abc = a ^ b ^ c, carryAbc = a & b | c & (a ^ b);
+                long def = d ^ e ^ f, carryDef = d & e | f & (d ^ e);
+                long gh = g ^ h, carryGh = g & h;
+                long carryOnes = abc & def | gh & (abc ^ def);
+
+                // four or more needs two carries set
+                long fours = carryAbc & carryDef | carryGh & carryOnes | (carryAbc ^ carryDef) & (carryGh ^ carryOnes);
+                res += Long.bitCount(rows[at] & ~fours);
+            }
+        }
+
+        return res;
     }
 
-    private static void partII(String input) {
-        long res = 0;
-        char[][] grid = AocUtils.grid(input);
-        boolean removed;
-
-        do {
-            removed = false;
-
-            for (int y = 0; y < grid.length; y++) {
-                for (int x = 0; x < grid[y].length; x++) {
-                    if (check(x, y, grid)) {
-                        res++;
-                        grid[y][x] = '.';
-                        removed = true;
+    private static long left(long[] rows, int i, int w) {
+        return rows[i] << 1 | (w > 0 ? rows[i - 1] >>> 63 : 0);
+    }
+
+    private static long right(long[] rows, int i, int w, int words) {
+        return rows[i] >>> 1 | (w < words - 1 ? rows[i + 1] << 63 : 0);
+    }
+
+    // Rolls only become removable when a neighbour goes, so after one counting pass each removal just updates its
+    // eight neighbours and queues those that drop below the threshold.
+    @Override
+    public Object partII(AocUtils.Grid input) {
+        AocUtils.Grid grid = input.copy();
+        int[] offsets = grid.neighbours8();
+        int[] counts = new int[grid.size()];
+        int[] queue = new int[grid.size()];
+        int tail = 0;
+
+        for (int y = 0; y < grid.height(); y++) {
+            for (int i = grid.index(0, y); i < grid.index(grid.width(), y); i++) {
+                if (grid.get(i) != '.') {
+                    for (int offset : offsets) {
+                        if (grid.get(i + offset) != '.') {
+                            counts[i]++;
+                        }
                     }
                 }
             }
-        } while (removed);
-
-        System.out.println("Part II: " + res);
-    }
+        }
 
-    private static boolean check(int x, int y, char[][] grid) {
-        if (grid[y][x] == '.') {
-            return false;
+        for (int y = 0; y < grid.height(); y++) {
+            for (int i = grid.index(0, y); i < grid.index(grid.width(), y); i++) {
+                if (grid.get(i) != '.' && counts[i] < 4) {
+                    grid.set(i, '.');
+                    queue[tail++] = i;
+                }
+            }
         }
 
-        int count = 0;
+        for (int head = 0; head < tail; head++) {
+            int i = queue[head];
 
-        for (int y1 = y - 1; y1 < y + 2; y1++) {
-            for (int x1 = x - 1; x1 < x + 2; x1++) {
-                if (x1 == x && y1 == y) {
-                    continue;
-                }
+            for (int offset : offsets) {
+                int j = i + offset;
 
-                if (y1 < 0 || y1 >= grid.length || x1 < 0 || x1 >= grid[y1].length || grid[y1][x1] == '.') {
-                    count++;
+                if (grid.get(j) != '.' && --counts[j] == 3) {
+                    grid.set(j, '.');
+                    queue[tail++] = j;
                 }
             }
         }
 
-        return count > 4;
+        return (long) tail;
     }
 }
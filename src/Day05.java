@@ -1,7 +1,17 @@
-import java.util.ArrayList;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
+import java.util.function.IntToLongFunction;
+import java.util.stream.LongStream;
 
-public class Day05 {
+public class Day05 implements Solver<Day05.Inventory> {
     private static final String TEST_INPUT = """
             3-5
             10-14
@@ -16,86 +26,255 @@ public class Day05 {
             32
             """;
 
+    private static final Path INDEX = Path.of("input/5.idx");
+
     public static void main(String... args) {
-        AocUtils.waitForStartTime(5);
-        String realInput = AocUtils.download(5);
+        if (args.length > 0 && args[0].equals("query")) {
+            query(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
+        Day05 solver = new Day05();
+        String realInput = AocUtils.awaitRelease(5, solver);
+        solver.run(TEST_INPUT, realInput);
+    }
+
+    // Builds the index file from the real input on first use, or again when the input is newer, then counts the
+    // fresh IDs of each given ID list straight from the mapped file.
+    private static void query(String... idFiles) {
+        Path input = AocUtils.file(5);
 
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
+        try {
+            if (!Files.exists(INDEX)
+                || Files.getLastModifiedTime(INDEX).compareTo(Files.getLastModifiedTime(input)) < 0) {
+                new Day05().parse(input).fresh().save(INDEX);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        Ranges fresh = MappedIndex.open(INDEX);
+
+        for (String idFile : idFiles) {
+            long[] ids = ids(new AocUtils.Tokenizer(AocUtils.map(Path.of(idFile))));
+            System.out.println(idFile + ": " + fresh.count(ids) + " of " + ids.length + " fresh");
         }
     }
 
-    private record Invl(long from, long to) {
-        long size() {
-            return to - from + 1;
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
+
+    @Override
+    public Inventory parse(String input) {
+        return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public Inventory parse(ByteBuffer input) {
+        AocUtils.Tokenizer tokenizer = new AocUtils.Tokenizer(input);
+        LongStream.Builder froms = LongStream.builder();
+        LongStream.Builder tos = LongStream.builder();
+
+        while (tokenizer.nextLine() && tokenizer.length() > 0) {
+            froms.add(tokenizer.nextLong());
+            tos.add(tokenizer.nextLong());
         }
 
-        List<Invl> exclude(Invl toExclude) {
-            if (to < toExclude.from || toExclude.to < from) {
-                return List.of(this);
+        return new Inventory(Index.merge(froms.build().toArray(), tos.build().toArray()), ids(tokenizer));
+    }
+
+    private static long[] ids(AocUtils.Tokenizer tokenizer) {
+        LongStream.Builder ids = LongStream.builder();
+
+        while (tokenizer.nextLine()) {
+            if (tokenizer.hasNextLong()) {
+                ids.add(tokenizer.nextLong());
             }
+        }
 
-            List<Invl> split = new ArrayList<>();
-            split.add(new Invl(from, toExclude.from - 1));
-            split.add(new Invl(toExclude.to + 1, to));
-            split.removeIf(i -> i.size() <= 0);
-            return split;
+        return ids.build().toArray();
+    }
+
+    record Inventory(Index fresh, long[] ids) {}
+
+    interface Ranges {
+        boolean contains(long id);
+
+        // total number of IDs covered
+        long size();
+
+        // sorted first so that lookups walk the ranges in order
+        default long count(long[] ids) {
+            long[] sorted = ids.clone();
+            Arrays.sort(sorted);
+            return Arrays.stream(sorted).filter(this::contains).count();
         }
     }
 
-    private static void partI(String input) {
-        long res = 0;
-        List<Invl> freshInvls = new ArrayList<>();
-        boolean isAvailable = false;
-
-        for (String line : input.lines().toList()) {
-            if (line.isEmpty()) {
-                isAvailable = true;
-            } else {
-                if (isAvailable) {
-                    long id = Long.parseLong(line);
-                    for (Invl i : freshInvls) {
-                        if (i.from() <= id && i.to() >= id) {
-                            res++;
-                            break;
-                        }
-                    }
-                } else {
-                    int dashIx = line.indexOf("-");
-                    long from = Long.parseLong(line.substring(0, dashIx));
-                    long to = Long.parseLong(line.substring(dashIx + 1));
-                    freshInvls.add(new Invl(from, to));
+    // Disjoint, non-adjacent ranges ordered by start.
+    record Index(long[] starts, long[] ends, long size) implements Ranges {
+        // Sorting the bounds independently keeps the union intact: after the i-th smallest end, i starts and i ends
+        // have been passed, so a gap opens exactly where the next start lies beyond that end.
+        static Index merge(long[] froms, long[] tos) {
+            Arrays.sort(froms);
+            Arrays.sort(tos);
+            int n = 0;
+            long size = 0;
+
+            for (int i = 0; i < froms.length; i++) {
+                if (i == 0 || froms[i] > tos[i - 1] + 1) {
+                    froms[n] = froms[i];
+                    n++;
+                }
+
+                if (i == froms.length - 1 || froms[i + 1] > tos[i] + 1) {
+                    tos[n - 1] = tos[i];
+                    size += tos[i] - froms[n - 1] + 1;
                 }
             }
+
+            return new Index(Arrays.copyOf(froms, n), Arrays.copyOf(tos, n), size);
         }
 
-        System.out.println("Part I: " + res);
+        @Override
+        public boolean contains(long id) {
+            int i = Arrays.binarySearch(starts, id);
+
+            if (i >= 0) {
+                return true;
+            }
+
+            int before = -i - 2;
+            return before >= 0 && id <= ends[before];
+        }
+
+        // merge-joins the sorted IDs against the ranges instead of searching for each one
+        @Override
+        public long count(long[] ids) {
+            long[] sorted = ids.clone();
+            Arrays.sort(sorted);
+            long res = 0;
+            int i = 0;
+
+            for (long id : sorted) {
+                while (i < starts.length && ends[i] < id) {
+                    i++;
+                }
+
+                if (i == starts.length) {
+                    break;
+                }
+
+                if (starts[i] <= id) {
+                    res++;
+                }
+            }
+
+            return res;
+        }
+
+        void save(Path path) {
+            try {
+                AocUtils.writeAtomically(path, stream -> {
+                    DataOutputStream out = new DataOutputStream(stream);
+                    out.writeLong(starts.length);
+                    out.writeLong(size);
+                    out.writeLong(MappedIndex.FENCE_STRIDE);
+
+                    for (int i = 0; i < starts.length; i++) {
+                        out.writeLong(starts[i]);
+                        out.writeLong(ends[i]);
+                    }
+
+                    for (int i = 0; i < starts.length; i += MappedIndex.FENCE_STRIDE) {
+                        out.writeLong(starts[i]);
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
     }
 
-    private static void partII(String input) {
-        List<Invl> disjointInvls = new ArrayList<>();
+    // An Index saved as three header longs (range count, size, fence stride), the ranges as start/end pairs and then
+    // every stride-th start as a fence. Lookups search the small fence first and then a single block of pairs, so
+    // only the pages touched are read and the page cache is shared between processes mapping the same file.
+    record MappedIndex(LongBuffer longs, int count, long size, int stride) implements Ranges {
+        static final int FENCE_STRIDE = 256;
+        private static final int HEADER = 3;
+
+        static MappedIndex open(Path path) {
+            ByteBuffer bytes = AocUtils.map(path);
+            LongBuffer longs = bytes.asLongBuffer();
+
+            if (longs.limit() < HEADER) {
+                throw new IllegalStateException("Index " + path + " is shorter than its header");
+            }
+
+            long count = longs.get(0);
+            long stride = longs.get(2);
+
+            if (count < 0 || count > Integer.MAX_VALUE || stride <= 0 || stride > Integer.MAX_VALUE
+                || bytes.limit() != Long.BYTES * (HEADER + 2 * count + (count + stride - 1) / stride)) {
+                throw new IllegalStateException("Index " + path + " doesn't match its header");
+            }
+
+            return new MappedIndex(longs, (int) count, longs.get(1), (int) stride);
+        }
+
+        private long start(int i) {
+            return longs.get(HEADER + 2 * i);
+        }
+
+        private long end(int i) {
+            return longs.get(HEADER + 2 * i + 1);
+        }
+
+        private long fence(int block) {
+            return longs.get(HEADER + 2 * count + block);
+        }
 
-        for (String line : input.lines().toList()) {
-            if (line.isEmpty()) {
-                break;
+        @Override
+        public boolean contains(long id) {
+            int block = last((count + stride - 1) / stride, id, this::fence);
+
+            if (block < 0) {
+                return false;
             }
 
-            int ix = line.indexOf("-");
-            long from = Long.parseLong(line.substring(0, ix));
-            long to = Long.parseLong(line.substring(ix + 1));
-            List<Invl> newInvls = List.of(new Invl(from, to));
+            int from = block * stride;
+            int i = from + last(Math.min(stride, count - from), id, j -> start(from + j));
+            return id <= end(i);
+        }
+
+        // index of the last of n ascending values that is at most key, or -1
+        private static int last(int n, long key, IntToLongFunction values) {
+            int low = 0;
+            int high = n - 1;
 
-            for (Invl invl : disjointInvls) {
-                newInvls = newInvls.stream().flatMap(i -> i.exclude(invl).stream()).toList();
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+
+                if (values.applyAsLong(mid) <= key) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
             }
 
-            disjointInvls.addAll(newInvls);
+            return high;
         }
+    }
+
+    @Override
+    public Object partI(Inventory inventory) {
+        return inventory.fresh().count(inventory.ids());
+    }
 
-        long res = disjointInvls.stream().mapToLong(Invl::size).sum();
-        System.out.println("Part II: " + res);
+    @Override
+    public Object partII(Inventory inventory) {
+        return inventory.fresh().size();
     }
 }
@@ -1,7 +1,10 @@
-import java.util.ArrayList;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
+import java.util.stream.IntStream;
 
-public class Day06 {
+public class Day06 implements Solver<Day06.Worksheet> {
     private static final String TEST_INPUT = """
             123 328  51 64\s
              45 64  387 23\s
@@ -9,79 +12,157 @@ public class Day06 {
             *   +   *   + \s""";
 
     public static void main(String... args) {
-        AocUtils.waitForStartTime(6);
-        String realInput = AocUtils.download(6);
-
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
-        }
+        Day06 solver = new Day06();
+        String realInput = AocUtils.awaitRelease(6, solver);
+        solver.run(TEST_INPUT, realInput);
+    }
+
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
+
+    @Override
+    public Worksheet parse(String input) {
+        return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
     }
 
-    private static void partI(String input) {
-        long res = 0;
-        List<String[]> cells = new ArrayList<>();
-        input.lines().forEach(line -> cells.add(line.trim().split("[ ]+")));
+    // A column belongs to a problem when any row has a non-blank byte in it, so the non-blank masks of all rows are
+    // OR-ed together and each run of set columns becomes one problem.
+    @Override
+    public Worksheet parse(ByteBuffer input) {
+        IntStream.Builder starts = IntStream.builder();
+        IntStream.Builder lengths = IntStream.builder();
+        long[] nonBlank = new long[0];
+        int width = 0;
+        int start = input.position();
+
+        for (int i = start; i <= input.limit(); i++) {
+            if (i == input.limit() || input.get(i) == '\n') {
+                int end = i > start && input.get(i - 1) == '\r' ? i - 1 : i;
+
+                if (end > start || i < input.limit()) {
+                    starts.add(start);
+                    lengths.add(end - start);
+                    width = Math.max(width, end - start);
+
+                    if (nonBlank.length * 64 < width) {
+                        nonBlank = Arrays.copyOf(nonBlank, Math.max(nonBlank.length * 2, (width + 63) / 64));
+                    }
+
+                    for (int x = 0; x < end - start; x++) {
+                        if (input.get(start + x) != ' ') {
+                            nonBlank[x / 64] |= 1L << x;
+                        }
+                    }
+                }
+
+                start = i + 1;
+            }
+        }
 
-        for (int x = 0; x < cells.getFirst().length; x++) {
-            long[] values = new long[cells.size() - 1];
+        IntStream.Builder froms = IntStream.builder();
+        IntStream.Builder tos = IntStream.builder();
 
-            for (int y = 0; y < cells.size() - 1; y++) {
-                values[y] = Long.parseLong(cells.get(y)[x]);
+        for (int x = 0; x < width; x++) {
+            if (isSet(nonBlank, x) && (x == 0 || !isSet(nonBlank, x - 1))) {
+                froms.add(x);
             }
 
-            res += cells.getLast()[x].equals("+") ? sum(values) : product(values);
+            if (isSet(nonBlank, x) && (x == width - 1 || !isSet(nonBlank, x + 1))) {
+                tos.add(x + 1);
+            }
         }
 
-        System.out.println("Part I: " + res);
+        return new Worksheet(input, starts.build().toArray(), lengths.build().toArray(),
+                             froms.build().toArray(), tos.build().toArray());
     }
 
-    private static void partII(String input) {
-        long res = 0;
-        char[][] grid = AocUtils.grid(input);
-        List<Long> values = new ArrayList<>();
+    // Rows as offsets into the raw bytes, the last one holding the operators, and each problem as a column range.
+    record Worksheet(ByteBuffer bytes, int[] starts, int[] lengths, int[] froms, int[] tos) {
+        byte get(int x, int y) {
+            return x < lengths[y] ? bytes.get(starts[y] + x) : (byte) ' ';
+        }
 
-        for (int x = grid[0].length - 1; x >= 0; x--) {
-            long value = 0;
+        int rows() {
+            return starts.length;
+        }
 
-            for (int y = 0; y < grid.length - 1; y++) {
-                char c = grid[y][x];
+        int problems() {
+            return froms.length;
+        }
 
-                if (c >= '0' && c <= '9') {
-                    value = value * 10 + (c - '0');
+        byte operator(int problem) {
+            for (int x = froms[problem]; x < tos[problem]; x++) {
+                byte c = get(x, rows() - 1);
+
+                if (c == '+' || c == '*') {
+                    return c;
                 }
             }
 
-            values.add(value);
+            throw new IllegalArgumentException("No operator for problem " + problem);
+        }
+    }
 
-            char c = grid[grid.length - 1][x];
+    @Override
+    public Object partI(Worksheet worksheet) {
+        return evaluate(worksheet, false);
+    }
 
-            if (c == '+' || c == '*') {
-                long[] array = values.stream().mapToLong(l -> l).toArray();
-                res += (c == '+') ? sum(array) : product(array);
-                values.clear();
-                x--;
+    @Override
+    public Object partII(Worksheet worksheet) {
+        return evaluate(worksheet, true);
+    }
+
+    // Addition and multiplication don't care about the order, so each problem folds its numbers straight into one
+    // accumulator, read along its rows for part I and down its columns for part II.
+    private static long evaluate(Worksheet worksheet, boolean columns) {
+        return IntStream.range(0, worksheet.problems())
+                        .parallel()
+                        .mapToLong(p -> columns ? byColumns(worksheet, p) : byRows(worksheet, p))
+                        .sum();
+    }
+
+    private static long byRows(Worksheet worksheet, int problem) {
+        boolean add = worksheet.operator(problem) == '+';
+        long res = add ? 0 : 1;
+
+        for (int y = 0; y < worksheet.rows() - 1; y++) {
+            long value = 0;
+
+            for (int x = worksheet.froms()[problem]; x < worksheet.tos()[problem]; x++) {
+                value = digit(value, worksheet.get(x, y));
             }
+
+            res = add ? res + value : res * value;
         }
 
-        System.out.println("Part II: " + res);
+        return res;
     }
 
-    private static long product(long[] vals) {
-        long total = 1;
-        for (long v : vals) {
-            total *= v;
+    private static long byColumns(Worksheet worksheet, int problem) {
+        boolean add = worksheet.operator(problem) == '+';
+        long res = add ? 0 : 1;
+
+        for (int x = worksheet.froms()[problem]; x < worksheet.tos()[problem]; x++) {
+            long value = 0;
+
+            for (int y = 0; y < worksheet.rows() - 1; y++) {
+                value = digit(value, worksheet.get(x, y));
+            }
+
+            res = add ? res + value : res * value;
         }
-        return total;
+
+        return res;
     }
 
-    private static long sum(long[] vals) {
-        long total = 0;
-        for (long v : vals) {
-            total += v;
-        }
-        return total;
+    private static long digit(long value, byte c) {
+        return c >= '0' && c <= '9' ? value * 10 + (c - '0') : value;
+    }
+
+    private static boolean isSet(long[] bits, int x) {
+        return (bits[x / 64] & 1L << x) != 0;
     }
 }
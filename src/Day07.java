@@ -1,10 +1,12 @@
-import java.util.HashMap;
-import java.util.HashSet;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
 
-public class Day07 {
+public class Day07 implements Solver<Day07.Manifold> {
     private static final String TEST_INPUT = """
             .......S.......
             ...............
@@ -24,65 +26,335 @@ public class Day07 {
             ...............
             """;
 
+    private static final int MIN_BAND_ROWS = 256;
+    private static final int BAND_ROWS_PER_COLUMN = 8;
+
+    private final boolean banded;
+
+    public Day07() {
+        this(false);
+    }
+
+    Day07(boolean banded) {
+        this.banded = banded;
+    }
+
     public static void main(String... args) {
-        AocUtils.waitForStartTime(7);
-        String realInput = AocUtils.download(7);
+        Day07 solver = new Day07(args.length > 0 && args[0].equals("banded"));
+        String realInput = AocUtils.awaitRelease(7, solver);
+        solver.run(TEST_INPUT, realInput);
+    }
+
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
+
+    @Override
+    public Manifold parse(String input) {
+        return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public Manifold parse(ByteBuffer input) {
+        return new Manifold(AocUtils.Grid.parse(input, '.'), banded);
+    }
+
+    // Both parts come out of the same pass over the grid, which is run by whichever part asks first.
+    static final class Manifold {
+        private final AocUtils.Grid grid;
+        private final boolean banded;
+        private Beams beams;
+
+        Manifold(AocUtils.Grid grid, boolean banded) {
+            this.grid = grid;
+            this.banded = banded;
+        }
+
+        synchronized Beams beams() {
+            if (beams == null) {
+                beams = banded ? simulateBanded(grid) : simulate(grid);
+            }
 
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
+            return beams;
         }
     }
 
-    private static void partI(String input) {
-        long res = 0;
-        char[][] grid = AocUtils.grid(input);
-        int start = new String(grid[0]).indexOf('S');
-        Set<Integer> beams = Set.of(start);
-
-        for (int y = 1; y < grid.length; y++) {
-            Set<Integer> newBeams = new HashSet<>();
-
-            for (int x : beams) {
-                if (grid[y][x] == '^') {
-                    res++;
-                    newBeams.add(x - 1);
-                    newBeams.add(x + 1);
-                } else {
-                    newBeams.add(x);
+    @Override
+    public boolean sharedPass() {
+        return true;
+    }
+
+    record Beams(long splits, long timelines) {}
+
+    // Columns are shifted one step right so that beams split off either edge still have a cell. The beam row is a
+    // bitset, which gives the split count word by word, and its set bits are the only columns whose timeline counts
+    // have to be pushed to the next row; both row buffers are reused and swapped. Every timeline ends up in the last
+    // row, so the timelines are the sum of its counts.
+    private static Beams simulate(AocUtils.Grid grid) {
+        State state = State.start(grid);
+        long[] splitters = new long[state.beams().length];
+        long splits = 0;
+
+        for (int y = 1; y < grid.height(); y++) {
+            splits += state.step(splitters(grid, y, splitters));
+        }
+
+        return new Beams(splits, state.timelines());
+    }
+
+    // Each row maps the counts of one row linearly onto the next, so a band of rows is one matrix over the columns.
+    // The band matrices are built in parallel and applied in order to find what enters each band, after which the
+    // bands are re-simulated in parallel for their splits. Building a matrix costs a few times simulating its band
+    // and the re-simulation repeats the rest, so this only beats simulate() with about four or more cores. Each band
+    // holds a width-squared matrix and is kept at least BAND_ROWS_PER_COLUMN times as tall as the grid is wide, so
+    // applying it stays cheap next to simulating it.
+    private static Beams simulateBanded(AocUtils.Grid grid) {
+        int rows = grid.height() - 1;
+        int bandRows = Math.max(MIN_BAND_ROWS, BAND_ROWS_PER_COLUMN * (grid.width() + 2));
+        int count = Math.clamp(rows / bandRows, 1, 4 * ForkJoinPool.getCommonPoolParallelism());
+
+        if (count == 1) {
+            return simulate(grid);
+        }
+
+        Band[] bands = IntStream.range(0, count)
+                                .parallel()
+                                .mapToObj(b -> Band.build(grid, 1 + (int) ((long) rows * b / count),
+                                                          1 + (int) ((long) rows * (b + 1) / count)))
+                                .toArray(Band[]::new);
+        State[] inputs = new State[count + 1];
+        inputs[0] = State.start(grid);
+
+        for (int b = 0; b < count; b++) {
+            inputs[b + 1] = bands[b].apply(inputs[b]);
+        }
+
+        long splits = IntStream.range(0, count).parallel().mapToLong(b -> bands[b].splits(inputs[b])).sum();
+        return new Beams(splits, inputs[count].timelines());
+    }
+
+    private static long[] splitters(AocUtils.Grid grid, int y, long[] splitters) {
+        Arrays.fill(splitters, 0);
+
+        for (int x = 0; x < grid.width(); x++) {
+            if (grid.get(x, y) == '^') {
+                splitters[(x + 1) / 64] |= 1L << x + 1;
+            }
+        }
+
+        return splitters;
+    }
+
+    // One row of beams as a bitset plus the timeline count of every beam column, with spare buffers for the next row.
+    private static final class State {
+        private long[] beams;
+        private long[] nextBeams;
+        private long[] counts;
+        private long[] nextCounts;
+
+        State(int words) {
+            beams = new long[words];
+            nextBeams = new long[words];
+            counts = new long[words * 64];
+            nextCounts = new long[words * 64];
+        }
+
+        static State start(AocUtils.Grid grid) {
+            State state = new State((grid.width() + 2 + 63) / 64);
+            state.add(grid.row(0).indexOf('S') + 1, 1);
+            return state;
+        }
+
+        long[] beams() {
+            return beams;
+        }
+
+        void add(int x, long count) {
+            beams[x / 64] |= 1L << x;
+            counts[x] += count;
+        }
+
+        long count(int x) {
+            return counts[x];
+        }
+
+        void clear() {
+            for (int w = 0; w < beams.length; w++) {
+                for (long bits = beams[w]; bits != 0; bits &= bits - 1) {
+                    counts[w * 64 + Long.numberOfTrailingZeros(bits)] = 0;
                 }
+
+                beams[w] = 0;
             }
+        }
 
-            beams = newBeams;
+        long timelines() {
+            return Arrays.stream(counts).sum();
         }
 
-        System.out.println("Part I: " + res);
+        // moves the beams through one row of splitters and returns the number of splits
+        long step(long[] splitters) {
+            int words = beams.length;
+            long splits = 0;
+
+            for (int w = 0; w < words; w++) {
+                long hits = beams[w] & splitters[w];
+                long before = w > 0 ? beams[w - 1] & splitters[w - 1] : 0;
+                long after = w < words - 1 ? beams[w + 1] & splitters[w + 1] : 0;
+                splits += Long.bitCount(hits);
+                nextBeams[w] = beams[w] & ~hits | hits << 1 | before >>> 63 | hits >>> 1 | after << 63;
+
+                for (long bits = beams[w]; bits != 0; bits &= bits - 1) {
+                    int x = w * 64 + Long.numberOfTrailingZeros(bits);
+                    long count = counts[x];
+                    counts[x] = 0;
+
+                    if ((hits & 1L << x) != 0) {
+                        nextCounts[x - 1] += count;
+                        nextCounts[x + 1] += count;
+                    } else {
+                        nextCounts[x] += count;
+                    }
+                }
+            }
+
+            long[] swap = beams;
+            beams = nextBeams;
+            nextBeams = swap;
+            swap = counts;
+            counts = nextCounts;
+            nextCounts = swap;
+            return splits;
+        }
     }
 
-    private static void partII(String input) {
-        long res = 1;
-        char[][] grid = AocUtils.grid(input);
-        int start = new String(grid[0]).indexOf('S');
-        Map<Integer, Long> beams = Map.of(start, 1L);
-
-        for (int y = 1; y < grid.length; y++) {
-            Map<Integer, Long> newBeams = new HashMap<>();
-
-            for (int x : beams.keySet()) {
-                if (grid[y][x] == '^') {
-                    res += beams.get(x);
-                    newBeams.merge(x - 1, beams.get(x), Long::sum);
-                    newBeams.merge(x + 1, beams.get(x), Long::sum);
-                } else {
-                    newBeams.merge(x, beams.get(x), Long::sum);
+    // The rows [from, to) as splitter bitsets and their combined transfer matrix: counts[x][j] is how many timelines
+    // entering at column j leave at column x, and reach[x] the bitset of entry columns that lead to x at all, kept
+    // apart so that a count wrapping to zero doesn't drop a beam.
+    private record Band(long[][] splitters, long[][] counts, long[][] reach) {
+        // One sweep over the rows carries every entry column at once: a splitter row only moves the matrix rows of its
+        // splitter columns onto their two neighbours, which costs the width for each splitter hit.
+        static Band build(AocUtils.Grid grid, int from, int to) {
+            int width = grid.width() + 2;
+            int words = (width + 63) / 64;
+            long[][] splitters = new long[to - from][];
+            long[][] counts = new long[width][width];
+            long[][] reach = new long[width][words];
+            long[][] movedCounts = new long[width][];
+            long[][] movedReach = new long[width][];
+            long[][] spareCounts = new long[width][];
+            long[][] spareReach = new long[width][];
+            int spares = 0;
+
+            for (int x = 0; x < width; x++) {
+                counts[x][x] = 1;
+                reach[x][x / 64] |= 1L << x;
+            }
+
+            for (int y = from; y < to; y++) {
+                long[] row = Day07.splitters(grid, y, new long[words]);
+                splitters[y - from] = row;
+                int moved = 0;
+
+                // detach every splitter's matrix row first, as a splitter next to another also receives from it
+                for (int w = 0; w < words; w++) {
+                    for (long bits = row[w]; bits != 0; bits &= bits - 1) {
+                        int x = w * 64 + Long.numberOfTrailingZeros(bits);
+                        movedCounts[moved] = counts[x];
+                        movedReach[moved++] = reach[x];
+
+                        if (spares == 0) {
+                            counts[x] = new long[width];
+                            reach[x] = new long[words];
+                        } else {
+                            spares--;
+                            counts[x] = spareCounts[spares];
+                            reach[x] = spareReach[spares];
+                        }
+                    }
+                }
+
+                for (int w = 0, m = 0; w < words; w++) {
+                    for (long bits = row[w]; bits != 0; bits &= bits - 1, m++) {
+                        int x = w * 64 + Long.numberOfTrailingZeros(bits);
+                        add(counts[x - 1], reach[x - 1], movedCounts[m], movedReach[m]);
+                        add(counts[x + 1], reach[x + 1], movedCounts[m], movedReach[m]);
+                        Arrays.fill(movedCounts[m], 0);
+                        Arrays.fill(movedReach[m], 0);
+                        spareCounts[spares] = movedCounts[m];
+                        spareReach[spares++] = movedReach[m];
+                    }
                 }
             }
 
-            beams = newBeams;
+            return new Band(splitters, counts, reach);
         }
 
-        System.out.println("Part II: " + res);
+        private static void add(long[] counts, long[] reach, long[] addedCounts, long[] addedReach) {
+            for (int j = 0; j < counts.length; j++) {
+                counts[j] += addedCounts[j];
+            }
+
+            for (int w = 0; w < reach.length; w++) {
+                reach[w] |= addedReach[w];
+            }
+        }
+
+        State apply(State input) {
+            long[] beams = input.beams();
+            State output = new State(beams.length);
+
+            for (int x = 0; x < counts.length; x++) {
+                boolean reached = false;
+                long count = 0;
+
+                for (int w = 0; w < beams.length; w++) {
+                    long bits = beams[w] & reach[x][w];
+                    reached |= bits != 0;
+
+                    for (; bits != 0; bits &= bits - 1) {
+                        int j = w * 64 + Long.numberOfTrailingZeros(bits);
+                        count += counts[x][j] * input.count(j);
+                    }
+                }
+
+                if (reached) {
+                    output.add(x, count);
+                }
+            }
+
+            return output;
+        }
+
+        long splits(State input) {
+            State state = new State(input.beams().length);
+            long[] beams = input.beams();
+
+            for (int w = 0; w < beams.length; w++) {
+                for (long bits = beams[w]; bits != 0; bits &= bits - 1) {
+                    int x = w * 64 + Long.numberOfTrailingZeros(bits);
+                    state.add(x, input.count(x));
+                }
+            }
+
+            long splits = 0;
+
+            for (long[] row : splitters) {
+                splits += state.step(row);
+            }
+
+            return splits;
+        }
+    }
+
+    @Override
+    public Object partI(Manifold manifold) {
+        return manifold.beams().splits();
+    }
+
+    @Override
+    public Object partII(Manifold manifold) {
+        return manifold.beams().timelines();
     }
 }
@@ -1,11 +1,20 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.LongSummaryStatistics;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.IntStream;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class Day08 {
+public class Day08 implements Solver<Day08.Input> {
     private static final String TEST_INPUT = """
             162,817,812
             57,618,57
@@ -30,103 +39,307 @@ public class Day08 {
             """;
 
     public static void main(String... args) {
-        AocUtils.waitForStartTime(8);
-        String realInput = AocUtils.download(8);
-
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input, input.equals(TEST_INPUT) ? 10 : 1000);
-            partII(input);
-            System.out.println();
-        }
+        Day08 solver = new Day08();
+        String realInput = AocUtils.awaitRelease(8, solver);
+        solver.run(TEST_INPUT, realInput);
     }
 
-    private static void partI(String input, int pairs) {
-        List<Point> points = parsePoints(input);
-        List<Pair> sortedPairs = allPairsSorted(points);
-        Set<Set<Point>> circuits = new HashSet<>();
-        points.forEach(p -> circuits.add(Set.of(p)));
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
 
-        for (var pair : sortedPairs.stream().limit(pairs).toList()) {
-            mergeCircuits(pair, circuits);
-        }
+    @Override
+    public Input parse(String input) {
+        return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
 
-        int[] sizes = circuits.stream().mapToInt(Set::size).sorted().toArray();
-        long res = (long) sizes[sizes.length - 3] * sizes[sizes.length - 2] * sizes[sizes.length - 1];
-        System.out.println("Part I: " + res);
+    @Override
+    public Input parse(ByteBuffer input) {
+        boolean test = input.equals(ByteBuffer.wrap(TEST_INPUT.getBytes(StandardCharsets.UTF_8)));
+        return new Input(parsePoints(input), test ? 10 : 1000);
     }
 
-    private static void partII(String input) {
-        List<Point> points = parsePoints(input);
-        Set<Set<Point>> circuits = new HashSet<>();
-        points.forEach(p -> circuits.add(Set.of(p)));
-        long res = 0;
+    @Override
+    public Object partI(Input input) {
+        Circuits circuits = new Circuits(input.points().size());
+        nearest(input.points(), input.pairs()).forEach(pair -> circuits.union(pair.a(), pair.b()));
+        return circuits.largest(3);
+    }
+
+    @Override
+    public Object partII(Input input) {
+        List<Point> points = input.points();
+        Circuits circuits = new Circuits(points.size());
 
-        for (var pair : allPairsSorted(points)) {
-            mergeCircuits(pair, circuits);
+        for (Iterator<Pair> pairs = closestFirst(points).iterator(); pairs.hasNext(); ) {
+            Pair pair = pairs.next();
 
-            if (circuits.size() == 1) {
-                res = pair.a().x() * pair.b().x();
-                break;
+            if (circuits.union(pair.a(), pair.b()) && circuits.count() == 1) {
+                return points.get(pair.a()).x() * points.get(pair.b()).x();
             }
         }
 
-        System.out.println("Part II: " + res);
+        return 0L;
     }
 
-    private static List<Point> parsePoints(String input) {
+    private static List<Point> parsePoints(ByteBuffer input) {
+        AocUtils.Tokenizer tokenizer = new AocUtils.Tokenizer(input);
         List<Point> points = new ArrayList<>();
 
-        for (String line : input.lines().toList()) {
-            long[] coords = Stream.of(line.split(",")).mapToLong(Long::parseLong).toArray();
-            points.add(new Point(coords[0], coords[1], coords[2]));
+        while (tokenizer.nextLine()) {
+            points.add(new Point(tokenizer.nextLong(), tokenizer.nextLong(), tokenizer.nextLong()));
         }
         return points;
     }
 
-    private static List<Pair> allPairsSorted(List<Point> points) {
-        Set<Pair> pairs = new HashSet<>();
+    // The k closest pairs, searching within a radius that doubles until it holds at least k of them and keeping only
+    // the best k seen in a bounded max-heap.
+    private static List<Pair> nearest(List<Point> points, int k) {
+        Cells cells = new Cells(points);
+
+        for (long radius = cells.spacing(); ; radius *= 2) {
+            PriorityQueue<Pair> heap = new PriorityQueue<>(Comparator.reverseOrder());
+
+            cells.forEachPair(radius, -1, radius * radius, pair -> {
+                if (heap.size() < k) {
+                    heap.add(pair);
+                } else if (pair.compareTo(heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(pair);
+                }
+            });
 
-        points.forEach(a -> points.forEach(b -> {
-            if (a != b && !pairs.contains(new Pair(b, a))) {
-                pairs.add(new Pair(a, b));
+            if (heap.size() == k || radius * radius >= cells.diameter2()) {
+                List<Pair> res = new ArrayList<>(heap);
+                res.sort(Comparator.naturalOrder());
+                return res;
             }
-        }));
+        }
+    }
+
+    // All pairs in increasing distance, produced lazily one radius at a time: each round sorts only the pairs whose
+    // distance falls between the previous radius and the doubled one.
+    private static Stream<Pair> closestFirst(List<Point> points) {
+        Cells cells = new Cells(points);
+
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<Pair>(Long.MAX_VALUE, Spliterator.ORDERED) {
+            private final List<Pair> round = new ArrayList<>();
+            private long radius = cells.spacing();
+            private long done = -1;
+            private int next;
 
-        List<Pair> sortedPairs = new ArrayList<>(pairs);
-        sortedPairs.sort(Comparator.naturalOrder());
-        return sortedPairs;
+            @Override
+            public boolean tryAdvance(Consumer<? super Pair> action) {
+                while (next == round.size()) {
+                    if (done >= cells.diameter2()) {
+                        return false;
+                    }
+
+                    round.clear();
+                    next = 0;
+                    cells.forEachPair(radius, done, radius * radius, round::add);
+                    round.sort(Comparator.naturalOrder());
+                    done = radius * radius;
+                    radius *= 2;
+                }
+
+                action.accept(round.get(next++));
+                return true;
+            }
+        }, false);
     }
 
-    private static void mergeCircuits(Pair pair, Set<Set<Point>> circuits) {
-        Set<Point> newCircuit = new HashSet<>();
-        List<Set<Point>> oldCircuits = new ArrayList<>();
+    // Disjoint sets of point indices with path compression and union by size. The number of circuits of each size is
+    // kept up to date on every union, so the largest circuits are read off without sorting.
+    private static final class Circuits {
+        private final int[] parent;
+        private final int[] size;
+        private final int[] ofSize;
+        private int count;
+        private int largest;
 
-        for (var c : circuits) {
-            if (c.contains(pair.a()) || c.contains(pair.b())) {
-                newCircuit.addAll(c);
-                oldCircuits.add(c);
+        Circuits(int points) {
+            parent = IntStream.range(0, points).toArray();
+            size = new int[points];
+            Arrays.fill(size, 1);
+            ofSize = new int[points + 1];
+            ofSize[1] = points;
+            count = points;
+            largest = 1;
+        }
+
+        int find(int i) {
+            int root = i;
+
+            while (parent[root] != root) {
+                root = parent[root];
+            }
+
+            while (parent[i] != root) {
+                int next = parent[i];
+                parent[i] = root;
+                i = next;
             }
+
+            return root;
+        }
+
+        // returns false when a and b were already in the same circuit
+        boolean union(int a, int b) {
+            int rootA = find(a);
+            int rootB = find(b);
+
+            if (rootA == rootB) {
+                return false;
+            }
+
+            if (size[rootA] < size[rootB]) {
+                int swap = rootA;
+                rootA = rootB;
+                rootB = swap;
+            }
+
+            ofSize[size[rootA]]--;
+            ofSize[size[rootB]]--;
+            parent[rootB] = rootA;
+            size[rootA] += size[rootB];
+            ofSize[size[rootA]]++;
+            largest = Math.max(largest, size[rootA]);
+            count--;
+            return true;
+        }
+
+        int count() {
+            return count;
         }
 
-        oldCircuits.forEach(circuits::remove);
-        circuits.add(newCircuit);
+        // product of the sizes of the n largest circuits
+        long largest(int n) {
+            long res = 1;
+
+            for (int s = largest; s > 0 && n > 0; s--) {
+                for (int i = 0; i < ofSize[s] && n > 0; i++, n--) {
+                    res *= s;
+                }
+            }
+
+            return res;
+        }
     }
 
+    record Input(List<Point> points, int pairs) {}
+
     private record Point(long x, long y, long z) {
-        double distance(Point that) {
-            return Math.sqrt((x - that.x) * (x - that.x) + (y - that.y) * (y - that.y) + (z - that.z) * (z - that.z));
+        long distance2(Point that) {
+            return (x - that.x) * (x - that.x) + (y - that.y) * (y - that.y) + (z - that.z) * (z - that.z);
         }
     }
 
-    private record Pair(Point a, Point b, double distance) implements Comparable<Pair> {
-        Pair(Point a, Point b) {
-            this(a, b, a.distance(b));
-        }
+    // Point indices a < b with their squared distance, ties broken by index so that the order is total.
+    private record Pair(int a, int b, long distance2) implements Comparable<Pair> {
+        private static final Comparator<Pair> ORDER = Comparator.comparingLong(Pair::distance2)
+                                                                .thenComparingInt(Pair::a)
+                                                                .thenComparingInt(Pair::b);
 
         @Override
         public int compareTo(Pair o) {
-            return Double.compare(distance(), o.distance());
+            return ORDER.compare(this, o);
+        }
+    }
+
+    // A uniform grid over the points: with cubes as wide as the search radius, every pair within the radius lies in
+    // the same or adjacent cubes, and visiting only the 13 neighbours that sort after a cube finds each pair once.
+    private static final class Cells {
+        private static final int BITS = 21;
+
+        private final List<Point> points;
+        private final long minX, minY, minZ;
+        private final long spacing;
+        private final long diameter2;
+
+        Cells(List<Point> points) {
+            this.points = points;
+            LongSummaryStatistics xs = points.stream().mapToLong(Point::x).summaryStatistics();
+            LongSummaryStatistics ys = points.stream().mapToLong(Point::y).summaryStatistics();
+            LongSummaryStatistics zs = points.stream().mapToLong(Point::z).summaryStatistics();
+            minX = xs.getMin();
+            minY = ys.getMin();
+            minZ = zs.getMin();
+            Point min = new Point(minX, minY, minZ);
+            diameter2 = min.distance2(new Point(xs.getMax(), ys.getMax(), zs.getMax()));
+            double volume = (double) (xs.getMax() - minX + 1) * (ys.getMax() - minY + 1) * (zs.getMax() - minZ + 1);
+            spacing = Math.max(1, (long) Math.cbrt(volume / points.size()));
+        }
+
+        // typical distance between neighbouring points
+        long spacing() {
+            return spacing;
+        }
+
+        // squared distance covering every pair
+        long diameter2() {
+            return diameter2;
+        }
+
+        // visits the pairs with squared distance in (above, atMost], atMost being at most side squared; the cubes are
+        // never made so small that their coordinates overflow the BITS per axis of a key
+        void forEachPair(long side, long above, long atMost, Consumer<Pair> action) {
+            long cubes = Math.max(side, ((long) Math.sqrt((double) diameter2) >> (BITS - 2)) + 1);
+            long[] keys = new long[points.size()];
+
+            for (int i = 0; i < keys.length; i++) {
+                Point p = points.get(i);
+                keys[i] = key((p.x() - minX) / cubes + 1, (p.y() - minY) / cubes + 1, (p.z() - minZ) / cubes + 1);
+            }
+
+            int[] order = IntStream.range(0, keys.length)
+                                   .boxed()
+                                   .sorted(Comparator.comparingLong(i -> keys[i]))
+                                   .mapToInt(i -> i)
+                                   .toArray();
+            long[] sorted = Arrays.stream(order).mapToLong(i -> keys[i]).toArray();
+
+            for (int from = 0, to; from < order.length; from = to) {
+                to = from;
+
+                while (to < order.length && sorted[to] == sorted[from]) {
+                    to++;
+                }
+
+                for (int dx = 0; dx <= 1; dx++) {
+                    for (int dy = dx == 0 ? 0 : -1; dy <= 1; dy++) {
+                        for (int dz = dx == 0 && dy == 0 ? 0 : -1; dz <= 1; dz++) {
+                            long neighbour = sorted[from] + key(dx, dy, dz);
+                            int start = neighbour == sorted[from] ? from : Arrays.binarySearch(sorted, neighbour);
+
+                            if (start < 0) {
+                                continue;
+                            }
+
+                            while (start > 0 && sorted[start - 1] == neighbour) {
+                                start--;
+                            }
+
+                            for (int i = from; i < to; i++) {
+                                for (int j = neighbour == sorted[from] ? i + 1 : start;
+                                     j < order.length && sorted[j] == neighbour; j++) {
+                                    long distance2 = points.get(order[i]).distance2(points.get(order[j]));
+
+                                    if (distance2 > above && distance2 <= atMost) {
+                                        action.accept(new Pair(Math.min(order[i], order[j]),
+                                                               Math.max(order[i], order[j]), distance2));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        private static long key(long x, long y, long z) {
+            return (x << 2 * BITS) + (y << BITS) + z;
         }
     }
 }
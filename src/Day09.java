@@ -1,3 +1,5 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -5,7 +7,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.LongStream;
 
-public class Day09 {
+public class Day09 implements Solver<List<Day09.Point>> {
     private static final String TEST_INPUT = """
             7,1
             11,1
@@ -18,19 +20,34 @@ public class Day09 {
             """;
 
     public static void main(String... args) {
-        AocUtils.waitForStartTime(9);
-        String realInput = AocUtils.download(9);
+        Day09 solver = new Day09();
+        String realInput = AocUtils.awaitRelease(9, solver);
+        solver.run(TEST_INPUT, realInput);
+    }
+
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
+
+    @Override
+    public List<Point> parse(String input) {
+        return parse(ByteBuffer.wrap(input.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Override
+    public List<Point> parse(ByteBuffer input) {
+        AocUtils.Tokenizer tokenizer = new AocUtils.Tokenizer(input);
+        List<Point> points = new ArrayList<>();
 
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
+        while (tokenizer.nextLine()) {
+            points.add(new Point(tokenizer.nextLong(), tokenizer.nextLong()));
         }
+        return points;
     }
 
-    private static void partI(String input) {
-        List<Point> points = parsePoints(input);
+    @Override
+    public Object partI(List<Point> points) {
         long res = 0;
 
         for (Point a : points) {
@@ -41,11 +58,11 @@ public class Day09 {
             }
         }
 
-        System.out.println("Part I: " + res);
+        return res;
     }
 
-    private static void partII(String input) {
-        List<Point> points = parsePoints(input);
+    @Override
+    public Object partII(List<Point> points) {
         Loop loop = createLoop(points);
         List<Rectangle> rectangles = new ArrayList<>();
 
@@ -67,17 +84,7 @@ public class Day09 {
             }
         }
 
-        System.out.println("Part II: " + res);
-    }
-
-    private static List<Point> parsePoints(String input) {
-        List<Point> points = new ArrayList<>();
-
-        for (String line : input.lines().toList()) {
-            String[] coords = line.split(",");
-            points.add(new Point(Long.parseLong(coords[0]), Long.parseLong(coords[1])));
-        }
-        return points;
+        return res;
     }
 
     private static Loop createLoop(List<Point> points) {
@@ -92,7 +99,7 @@ public class Day09 {
         return new Loop(lines, new HashMap<>());
     }
 
-    private record Point(long x, long y) {}
+    record Point(long x, long y) {}
 
     private interface Line {
         boolean contains(Point p);
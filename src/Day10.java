@@ -16,7 +16,7 @@ import com.google.ortools.linearsolver.MPObjective;
 import com.google.ortools.linearsolver.MPSolver;
 import com.google.ortools.linearsolver.MPVariable;
 
-public class Day10 {
+public class Day10 implements Solver<List<Day10.Machine>> {
     private static final String TEST_INPUT = """
             [.##.] (3) (1,3) (2) (2,3) (0,2) (0,1) {3,5,4,7}
             [...#.] (0,2,3,4) (2,3) (0,4) (0,1,2) (1,2,3,4) {7,5,12,7,2}
@@ -25,7 +25,17 @@ public class Day10 {
 
     private static final int MAX_DISTS = Integer.MAX_VALUE;
 
-    private static List<Machine> parse(String input) {
+    static {
+        Loader.loadNativeLibraries();
+    }
+
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
+    }
+
+    @Override
+    public List<Machine> parse(String input) {
         List<Machine> machines = new ArrayList<>();
         for (String line : input.lines().toList()) {
             String[] parts = line.split(" ");
@@ -52,41 +62,49 @@ public class Day10 {
         return machines;
     }
 
-    public static void main(String... args) {
-        AocUtils.waitForStartTime(10);
-        String realInput = AocUtils.download(10);
-        Loader.loadNativeLibraries();
+    // prints how the two part II solvers compare on each machine, to stderr
+    private final boolean verbose;
 
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
-        }
+    public Day10() {
+        this(false);
     }
 
-    private static void partI(String input) {
+    Day10(boolean verbose) {
+        this.verbose = verbose;
+    }
+
+    public static void main(String... args) {
+        Day10 solver = new Day10(args.length > 0 && args[0].equals("verbose"));
+        String realInput = AocUtils.awaitRelease(10, solver);
+        solver.run(TEST_INPUT, realInput);
+    }
+
+    @Override
+    public Object partI(List<Machine> machines) {
         long res = 0;
-        List<Machine> machines = parse(input);
         for (Machine m : machines) {
             res += bfs(m);
         }
-        System.out.println("Part I: " + res);
+        return res;
     }
 
-    private static void partII(String input) {
+    @Override
+    public Object partII(List<Machine> machines) {
         AtomicLong res = new AtomicLong(0);
-        List<Machine> machines = parse(input);
 
         machines.forEach(m -> {
             int index = machines.indexOf(m);
             long v1 = solve(m);
             long v2 = slow(index) ? Integer.MAX_VALUE : divideAndConquer(m, new int[m.levelList().size()]);
-            System.out.println(index + ": " + v1 + " vs " + v2 + ((v1 != v2 ? " \33[31mDIFF\33[0m" : "")));
+
+            if (verbose) {
+                System.err.println(index + ": " + v1 + " vs " + v2 + ((v1 != v2 ? " \33[31mDIFF\33[0m" : "")));
+            }
+
             res.addAndGet(Math.min(v1, v2));
         });
 
-        System.out.println("Part II: " + res.get());
+        return res.get();
     }
 
     private static boolean slow(int i) {
@@ -287,7 +305,7 @@ public class Day10 {
         }
     }
 
-    private record Machine(List<Boolean> lights, List<Button> buttons, List<Integer> levelList) {
+    record Machine(List<Boolean> lights, List<Button> buttons, List<Integer> levelList) {
         int[] levels() {
             return levelList.stream().mapToInt(i -> i).toArray();
         }
@@ -5,7 +5,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-public class Day11 {
+public class Day11 implements Solver<Map<String, Set<String>>> {
     private static final String TEST_INPUT1 = """
             aaa: you hhh
             you: bbb ccc
@@ -36,36 +36,36 @@ public class Day11 {
             """;
 
     public static void main(String... args) {
-        AocUtils.waitForStartTime(11);
-        String realInput = AocUtils.download(11);
-
-        for (String input : List.of(TEST_INPUT1, TEST_INPUT2, realInput)) {
-            System.out.println(input);
-            partI(input);
-            partII(input);
-            System.out.println();
-        }
+        Day11 solver = new Day11();
+        String realInput = AocUtils.awaitRelease(11, solver);
+        solver.run(TEST_INPUT1, TEST_INPUT2, realInput);
+    }
+
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT1, TEST_INPUT2);
     }
 
-    private static void partI(String input) {
-        Graph g = parse(input);
-        long res = g.count("you", "out", Set.of());
-        System.out.println("Part I: " + res);
+    @Override
+    public Object partI(Map<String, Set<String>> links) {
+        Graph g = new Graph(links, new HashMap<>());
+        return g.count("you", "out", Set.of());
     }
 
-    private static void partII(String input) {
-        Graph g = parse(input);
+    @Override
+    public Object partII(Map<String, Set<String>> links) {
+        Graph g = new Graph(links, new HashMap<>());
         long svrDac = g.count("svr", "dac", Set.of("svr", "fft", "out"));
         long dacFft = g.count("dac", "fft", Set.of("svr", "dac", "out"));
         long fftOut = g.count("fft", "out", Set.of("svr", "dac", "fft"));
         long svrFft = g.count("svr", "fft", Set.of("svr", "dac", "out"));
         long fftDac = g.count("fft", "dac", Set.of("svr", "fft", "out"));
         long dacOut = g.count("dac", "out", Set.of("svr", "dac", "fft"));
-        long res = svrDac * dacFft * fftOut + svrFft * fftDac * dacOut;
-        System.out.println("Part II: " + res);
+        return svrDac * dacFft * fftOut + svrFft * fftDac * dacOut;
     }
 
-    private static Graph parse(String input) {
+    @Override
+    public Map<String, Set<String>> parse(String input) {
         Map<String, Set<String>> links = new HashMap<>();
 
         for (String line : input.lines().toList()) {
@@ -77,7 +77,7 @@ public class Day11 {
             }
         }
 
-        return new Graph(links, new HashMap<>());
+        return links;
     }
 
     private record Graph(Map<String, Set<String>> links, Map<CacheKey, Long> cache) {
@@ -10,7 +10,7 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
 
-public class Day12 {
+public class Day12 implements Solver<Day12.ParsedInput> {
     private static final String TEST_INPUT = """
             0:
             ###
@@ -47,19 +47,30 @@ public class Day12 {
             12x5: 1 0 1 0 3 2
             """;
 
+    // prints braille progress over the regions of part I, to stderr
+    private final boolean verbose;
+
+    public Day12() {
+        this(false);
+    }
+
+    Day12(boolean verbose) {
+        this.verbose = verbose;
+    }
+
     public static void main(String... args) {
-        AocUtils.waitForStartTime(12);
-        String realInput = AocUtils.download(12);
+        Day12 solver = new Day12(args.length > 0 && args[0].equals("verbose"));
+        String realInput = AocUtils.awaitRelease(12, solver);
+        solver.run(TEST_INPUT, realInput);
+    }
 
-        for (String input : List.of(TEST_INPUT, realInput)) {
-            System.out.println(input);
-            partI(input);
-            System.out.println();
-        }
+    @Override
+    public List<String> testInputs() {
+        return List.of(TEST_INPUT);
     }
 
-    private static void partI(String input) {
-        ParsedInput parsedInput = parse(input);
+    @Override
+    public Object partI(ParsedInput parsedInput) {
         BrailleCounter counter = new BrailleCounter();
         long res = 0;
 
@@ -71,14 +82,20 @@ public class Day12 {
                 res++;
             }
 
-            System.out.print(counter.add(fits));
+            if (verbose) {
+                System.err.print(counter.add(fits));
+            }
+        }
+
+        if (verbose) {
+            System.err.println(counter);
         }
 
-        System.out.println(counter);
-        System.out.println("Part I: " + res);
+        return res;
     }
 
-    private static ParsedInput parse(String input) {
+    @Override
+    public ParsedInput parse(String input) {
         List<Shape> shapes = new ArrayList<>();
         List<Region> regions = new ArrayList<>();
         List<boolean[]> matrix = new ArrayList<>();
@@ -257,7 +274,7 @@ public class Day12 {
 
     private record Region(int width, int height, List<Integer> counts) {}
 
-    private record ParsedInput(List<Shape> shapes, List<Region> regions) {}
+    record ParsedInput(List<Shape> shapes, List<Region> regions) {}
 
     private record Board(int width, int height, BitSet bits) {
         boolean get(int x, int y) {
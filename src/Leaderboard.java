@@ -1,76 +1,283 @@
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.DecimalFormat;
 import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.Month;
 import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.Map;
-import java.util.TreeMap;
+import java.util.stream.IntStream;
 
-import com.google.gson.Gson;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
 
 public class Leaderboard {
+    private static final Path SNAPSHOT = Path.of("leaderboard/stars.bin");
+
     public static void main(String... args) {
-        String json = AocUtils.downloadLeaderboard(args.length > 0 && args[0].equals("force"));
-        Board board = new Gson().fromJson(json, Board.class);
-        Map<String, Map<Star, Instant>> memberStars = new TreeMap<>();
-
-        board.members.forEach((memberId, member) ->
-                member.completion_day_level.forEach((dayAsString, parts) ->
-                        parts.forEach((partAsString, part) -> {
-                            Instant time = Instant.ofEpochSecond(part.get_star_ts);
-                            Star star = new Star(Integer.parseInt(dayAsString), Integer.parseInt(partAsString));
-                            memberStars.computeIfAbsent(member.name, x -> new TreeMap<>()).put(star, time);
-                        })
-                )
-        );
-
-        memberStars.forEach((name, stars) ->
-                stars.forEach((star, endTime) -> {
-                    Instant startTime = star.part() == 2 ? stars.get(star.part1()) : star.released();
-                    Duration duration = Duration.between(startTime, endTime);
-                    System.out.println(name + " " + star + ": " + duration.toMinutes());
-                })
-        );
-    }
+        boolean force = args.length > 0 && args[0].equals("force");
+        Stars stars = Files.exists(SNAPSHOT) ? Stars.load(SNAPSHOT) : new Stars();
 
-    private record Star(int day, int part) implements Comparable<Star> {
-        @Override
-        public int compareTo(Star o) {
-            return Comparator.comparingInt(Star::day).thenComparingInt(Star::part).compare(this, o);
+        if (force || !Files.exists(SNAPSHOT)) {
+            stars.ingest(new JsonReader(new StringReader(AocUtils.downloadLeaderboard(force))));
+            stars.save(SNAPSHOT);
         }
 
+        stars.print();
+    }
+
+    private record Star(int day, int part) {
         @Override
         public String toString() {
             return new DecimalFormat("00").format(day) + ":" + part;
         }
 
-        Star part1() {
-            return new Star(day, 1);
-        }
-
         Instant released() {
             return LocalDateTime.of(2025, Month.DECEMBER, day, 6, 0).atZone(ZoneId.systemDefault()).toInstant();
         }
     }
 
-    private record Board(
-            String event,
-            long day1_ts,
-            Map<String, Member> members,
-            long owner_id) {}
-
-    private record Member(
-            int global_score,
-            int id,
-            long last_star_ts,
-            Map<String, Map<String, Part>> completion_day_level,
-            String name,
-            int local_score,
-            int stars) {}
-
-    private record Part(
-            long get_star_ts,
-            long star_index) {}
+    // Star timestamps in epoch seconds, one row of DAYS * PARTS columns per member, 0 where the star is missing.
+    // Members whose last_star_ts is unchanged since the previous ingest keep their row and skip their stars.
+    private static final class Stars {
+        private static final int DAYS = 25;
+        private static final int PARTS = 2;
+
+        private final Map<String, Integer> rows = new HashMap<>();
+        private String[] ids = new String[16];
+        private String[] names = new String[16];
+        private long[] lastStarTs = new long[16];
+        private long[] starTs = new long[16 * DAYS * PARTS];
+        private int size;
+
+        void ingest(JsonReader reader) {
+            try {
+                BitSet seen = new BitSet();
+                reader.beginObject();
+
+                while (reader.hasNext()) {
+                    if (reader.nextName().equals("members")) {
+                        reader.beginObject();
+
+                        while (reader.hasNext()) {
+                            seen.set(ingestMember(reader.nextName(), reader));
+                        }
+
+                        reader.endObject();
+                    } else {
+                        reader.skipValue();
+                    }
+                }
+
+                reader.endObject();
+                retain(seen);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        // A member's stars are only read when last_star_ts has changed. If completion_day_level comes before
+        // last_star_ts in the object, it is read into a local row first and dropped once the timestamp turns out to
+        // be unchanged.
+        private int ingestMember(String id, JsonReader reader) throws IOException {
+            boolean known = rows.containsKey(id);
+            int row = row(id);
+            long last = -1;
+            boolean lastRead = false;
+            long[] stars = null;
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "name" -> names[row] = nextNullableString(reader);
+                    case "last_star_ts" -> {
+                        last = reader.nextLong();
+                        lastRead = true;
+                    }
+                    case "completion_day_level" -> {
+                        if (known && lastRead && last == lastStarTs[row]) {
+                            reader.skipValue();
+                        } else {
+                            stars = new long[DAYS * PARTS];
+                            ingestDays(stars, reader);
+                        }
+                    }
+                    default -> reader.skipValue();
+                }
+            }
+
+            reader.endObject();
+
+            if (!known || last != lastStarTs[row]) {
+                Arrays.fill(starTs, row * DAYS * PARTS, (row + 1) * DAYS * PARTS, 0);
+
+                if (stars != null) {
+                    System.arraycopy(stars, 0, starTs, row * DAYS * PARTS, DAYS * PARTS);
+                }
+            }
+
+            lastStarTs[row] = last;
+
+            if (names[row] == null) {
+                names[row] = "(anonymous user #" + id + ")";
+            }
+
+            return row;
+        }
+
+        private static void ingestDays(long[] stars, JsonReader reader) throws IOException {
+            reader.beginObject();
+
+            while (reader.hasNext()) {
+                int day = Integer.parseInt(reader.nextName());
+                reader.beginObject();
+
+                while (reader.hasNext()) {
+                    int part = Integer.parseInt(reader.nextName());
+                    reader.beginObject();
+
+                    while (reader.hasNext()) {
+                        if (reader.nextName().equals("get_star_ts")) {
+                            stars[column(0, day, part)] = reader.nextLong();
+                        } else {
+                            reader.skipValue();
+                        }
+                    }
+
+                    reader.endObject();
+                }
+
+                reader.endObject();
+            }
+
+            reader.endObject();
+        }
+
+        private static String nextNullableString(JsonReader reader) throws IOException {
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                return null;
+            }
+
+            return reader.nextString();
+        }
+
+        private static int column(int row, int day, int part) {
+            return (row * DAYS + day - 1) * PARTS + part - 1;
+        }
+
+        private int row(String id) {
+            Integer row = rows.get(id);
+
+            if (row != null) {
+                return row;
+            }
+
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                names = Arrays.copyOf(names, size * 2);
+                lastStarTs = Arrays.copyOf(lastStarTs, size * 2);
+                starTs = Arrays.copyOf(starTs, size * 2 * DAYS * PARTS);
+            }
+
+            ids[size] = id;
+            rows.put(id, size);
+            return size++;
+        }
+
+        // drops members that have left the board
+        private void retain(BitSet seen) {
+            int kept = 0;
+
+            for (int row = 0; row < size; row++) {
+                if (seen.get(row)) {
+                    ids[kept] = ids[row];
+                    names[kept] = names[row];
+                    lastStarTs[kept] = lastStarTs[row];
+                    System.arraycopy(starTs, row * DAYS * PARTS, starTs, kept * DAYS * PARTS, DAYS * PARTS);
+                    kept++;
+                }
+            }
+
+            Arrays.fill(ids, kept, size, null);
+            Arrays.fill(names, kept, size, null);
+            size = kept;
+            rows.clear();
+            IntStream.range(0, size).forEach(row -> rows.put(ids[row], row));
+        }
+
+        void print() {
+            IntStream.range(0, size)
+                     .boxed()
+                     .sorted(Comparator.comparing(row -> names[row]))
+                     .forEach(row -> {
+                         for (int day = 1; day <= DAYS; day++) {
+                             for (int part = 1; part <= PARTS; part++) {
+                                 long end = starTs[column(row, day, part)];
+
+                                 if (end != 0) {
+                                     Star star = new Star(day, part);
+                                     Instant startTime = part == 2
+                                                         ? Instant.ofEpochSecond(starTs[column(row, day, 1)])
+                                                         : star.released();
+                                     Duration duration = Duration.between(startTime, Instant.ofEpochSecond(end));
+                                     System.out.println(names[row] + " " + star + ": " + duration.toMinutes());
+                                 }
+                             }
+                         }
+                     });
+        }
+
+        static Stars load(Path path) {
+            try (DataInputStream in = new DataInputStream(Files.newInputStream(path))) {
+                Stars stars = new Stars();
+                int size = in.readInt();
+
+                for (int i = 0; i < size; i++) {
+                    int row = stars.row(in.readUTF());
+                    stars.names[row] = in.readUTF();
+                    stars.lastStarTs[row] = in.readLong();
+
+                    for (int c = row * DAYS * PARTS; c < (row + 1) * DAYS * PARTS; c++) {
+                        stars.starTs[c] = in.readLong();
+                    }
+                }
+
+                return stars;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void save(Path path) {
+            try {
+                AocUtils.writeAtomically(path, stream -> {
+                    DataOutputStream out = new DataOutputStream(stream);
+                    out.writeInt(size);
+
+                    for (int row = 0; row < size; row++) {
+                        out.writeUTF(ids[row]);
+                        out.writeUTF(names[row]);
+                        out.writeLong(lastStarTs[row]);
+
+                        for (int c = row * DAYS * PARTS; c < (row + 1) * DAYS * PARTS; c++) {
+                            out.writeLong(starTs[c]);
+                        }
+                    }
+                });
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
 }
@@ -0,0 +1,106 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+@SuppressWarnings("UseOfSystemOutOrSystemErr")
+public class Runner {
+    private static final List<Supplier<Solver<?>>> SOLVERS = List.of(
+            Day01::new, Day02::new, Day03::new, Day04::new, Day05::new, Day06::new,
+            Day07::new, Day08::new, Day09::new, Day10::new, Day11::new, Day12::new);
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public static void main(String... args) {
+        boolean test = Stream.of(args).anyMatch("test"::equals);
+        List<Integer> days = Stream.of(args).filter(a -> !a.equals("test")).map(Integer::parseInt).toList();
+
+        if (days.isEmpty()) {
+            days = IntStream.rangeClosed(1, SOLVERS.size()).boxed().toList();
+        }
+
+        long start = System.nanoTime();
+        Map<Integer, Future<List<Run>>> runs = new TreeMap<>();
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors())) {
+            for (int day : days) {
+                runs.put(day, executor.submit(() -> run(day, SOLVERS.get(day - 1).get(), test)));
+            }
+        }
+
+        runs.forEach((day, run) -> {
+            try {
+                run.get().forEach(System.out::println);
+            } catch (ExecutionException e) {
+                System.out.printf("Day %02d failed: %s%n", day, e.getCause());
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        System.out.printf("Total: %s%n", millis(System.nanoTime() - start));
+    }
+
+    private static <T> List<Run> run(int day, Solver<T> solver, boolean test) {
+        List<Supplier<T>> inputs = test
+                                   ? solver.testInputs().stream().map(i -> (Supplier<T>) () -> solver.parse(i)).toList()
+                                   : List.of(() -> solver.parse(AocUtils.file(day)));
+        List<Run> runs = new ArrayList<>();
+
+        for (int i = 0; i < inputs.size(); i++) {
+            Timed<T> parsed = time(inputs.get(i));
+            Timed<Object> partI = time(() -> solver.partI(parsed.value()));
+            Timed<Object> partII = time(() -> solver.partII(parsed.value()));
+            String name = test ? "test " + (i + 1) : "real";
+            runs.add(new Run(day, name, parsed, partI, partII, solver.sharedPass()));
+        }
+
+        return runs;
+    }
+
+    // CPU time is that of the calling thread only, so work a part hands to the common pool shows up in wall time alone
+    private static <V> Timed<V> time(Supplier<V> task) {
+        long cpu = THREADS.getCurrentThreadCpuTime();
+        long wall = System.nanoTime();
+        V value = task.get();
+        return new Timed<>(value, System.nanoTime() - wall, THREADS.getCurrentThreadCpuTime() - cpu);
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.1f ms", nanos / 1e6);
+    }
+
+    private record Timed<V>(V value, long wallNanos, long cpuNanos) {
+        @Override
+        public String toString() {
+            return millis(wallNanos) + " (caller-thread cpu " + millis(cpuNanos) + ")";
+        }
+    }
+
+    private record Run(int day, String input, Timed<?> parse, Timed<?> partI, Timed<?> partII, boolean shared) {
+        @Override
+        public String toString() {
+            String res = String.format("Day %02d [%s]%n  Parse:   %s%n  Part I:  %s in %s",
+                                       day, input, parse, partI.value(), partI);
+
+            if (partII.value() != null) {
+                res += String.format("%n  Part II: %s in %s", partII.value(), partII);
+            }
+
+            if (shared) {
+                res += String.format("%n  (both parts share one pass, timed in part I)");
+            }
+
+            return res;
+        }
+    }
+}
@@ -0,0 +1,44 @@
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+interface Solver<T> {
+    List<String> testInputs();
+
+    T parse(String input);
+
+    default T parse(ByteBuffer input) {
+        return parse(StandardCharsets.UTF_8.decode(input.duplicate()).toString());
+    }
+
+    default T parse(Path input) {
+        return parse(AocUtils.map(input));
+    }
+
+    Object partI(T input);
+
+    default Object partII(T input) {
+        return null;
+    }
+
+    // true when both parts read one pass run by whichever asks first, so that timings charge it all to part I
+    default boolean sharedPass() {
+        return false;
+    }
+
+    default void run(String... inputs) {
+        for (String input : inputs) {
+            System.out.println(input);
+            T parsed = parse(input);
+            System.out.println("Part I: " + partI(parsed));
+            Object partII = partII(parsed);
+
+            if (partII != null) {
+                System.out.println("Part II: " + partII);
+            }
+
+            System.out.println();
+        }
+    }
+}